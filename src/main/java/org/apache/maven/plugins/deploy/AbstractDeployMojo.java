@@ -18,8 +18,21 @@
  */
 package org.apache.maven.plugins.deploy;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 import org.apache.maven.api.RemoteRepository;
 import org.apache.maven.api.Session;
+import org.apache.maven.api.SessionData;
 import org.apache.maven.api.Version;
 import org.apache.maven.api.di.Inject;
 import org.apache.maven.api.plugin.Log;
@@ -35,6 +48,10 @@ public abstract class AbstractDeployMojo implements Mojo {
 
     private static final String FIXED_MAVEN_VERSION = "3.9.0";
 
+    private static final Pattern REPO_SYNTAX_PATTERN = Pattern.compile("(.+?)::(.+)");
+
+    private static final SessionData.Key<RepositoryCache> REPOSITORY_CACHE = SessionData.key(RepositoryCache.class);
+
     @Inject
     protected Log logger;
 
@@ -89,7 +106,71 @@ public abstract class AbstractDeployMojo implements Mojo {
      * Creates resolver {@link RemoteRepository} equipped with needed whistles and bells.
      */
     protected RemoteRepository createDeploymentArtifactRepository(String id, String url) {
-        return getSession().createRemoteRepository(id, url);
+        return getCachedRepository(id + "::" + url, () -> getSession().createRemoteRepository(id, url));
+    }
+
+    /**
+     * Creates resolver {@link RemoteRepository} equipped with needed whistles and bells, to deploy either snapshots or
+     * releases to.
+     */
+    protected RemoteRepository createDeploymentArtifactRepository(String id, String url, boolean snapshot) {
+        return getCachedRepository(id, url, snapshot, () -> getSession().createRemoteRepository(id, url));
+    }
+
+    /**
+     * Returns the repository with the given id and url created earlier in this session to deploy either snapshots or
+     * releases to, or creates it. All projects of the reactor then share the same instance, so deploy requests to the
+     * same repository are always grouped. Snapshot and release repositories are cached apart, as they may have the
+     * same id and url but different policies.
+     */
+    protected RemoteRepository getCachedRepository(
+            String id, String url, boolean snapshot, Supplier<RemoteRepository> factory) {
+        return getCachedRepository(id + "::" + url + "::" + (snapshot ? "snapshot" : "release"), factory);
+    }
+
+    private RemoteRepository getCachedRepository(String key, Supplier<RemoteRepository> factory) {
+        return getSession()
+                .getData()
+                .computeIfAbsent(REPOSITORY_CACHE, RepositoryCache::new)
+                .repositories
+                .computeIfAbsent(key, k -> factory.get());
+    }
+
+    /**
+     * Creates the resolver {@link RemoteRepository} described by the given <code>id::url</code> string.
+     */
+    protected RemoteRepository createDeploymentArtifactRepository(String repository) throws MojoException {
+        Matcher matcher = matchRepository(repository, "repository");
+        return createDeploymentArtifactRepository(matcher.group(1).trim(), matcher.group(2).trim());
+    }
+
+    /**
+     * Matches the given <code>id::url</code> string, throwing a {@link MojoException} naming the kind of repository it
+     * describes if it is invalid.
+     */
+    protected Matcher matchRepository(String repository, String kind) throws MojoException {
+        Matcher matcher = REPO_SYNTAX_PATTERN.matcher(repository);
+        if (!matcher.matches()) {
+            throw new MojoException(
+                    repository,
+                    "Invalid syntax for repository.",
+                    "Invalid syntax for " + kind + ". Use \"id::url\".");
+        }
+        return matcher;
+    }
+
+    /**
+     * Deletes the given directory and all its content, only logging a warning naming it as the given description if
+     * it cannot be deleted.
+     */
+    protected void deleteRecursively(Path directory, String description) {
+        try (Stream<Path> stream = Files.walk(directory)) {
+            for (Path path : stream.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        } catch (IOException e) {
+            getLog().warn("Unable to delete " + description + " " + directory + ": " + e.getMessage());
+        }
     }
 
     protected Session getSession() {
@@ -99,4 +180,12 @@ public abstract class AbstractDeployMojo implements Mojo {
     protected Log getLog() {
         return logger;
     }
+
+    /**
+     * The deployment repositories created in a session, by <code>id::url</code>, suffixed with whether they are to
+     * deploy snapshots or releases to if they are only used for either.
+     */
+    private static final class RepositoryCache {
+        private final Map<String, RemoteRepository> repositories = new ConcurrentHashMap<>();
+    }
 }
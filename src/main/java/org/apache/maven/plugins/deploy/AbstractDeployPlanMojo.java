@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.deploy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.apache.maven.api.ProducedArtifact;
+import org.apache.maven.api.RemoteRepository;
+import org.apache.maven.api.plugin.MojoException;
+import org.apache.maven.api.plugin.annotations.Parameter;
+import org.apache.maven.api.services.ArtifactDeployer;
+import org.apache.maven.api.services.ArtifactDeployerRequest;
+import org.apache.maven.api.services.ArtifactManager;
+
+/**
+ * Abstract class for the mojos executing a {@link DeploymentPlan}.
+ */
+public abstract class AbstractDeployPlanMojo extends AbstractDeployMojo {
+    /**
+     * The maximum number of units deployed concurrently.
+     */
+    @Parameter(property = "deployThreads", defaultValue = "4")
+    private int deployThreads;
+
+    /**
+     * Whether the size and checksum of every artifact file are checked against the plan before deploying it.
+     */
+    @Parameter(property = "maven.deploy.plan.verify", defaultValue = "true")
+    private boolean verify;
+
+    /**
+     * The artifacts of one <code>groupId:artifactId</code> to deploy to one repository. Keeping them together makes
+     * sure the repository metadata of a given artifact is never updated concurrently.
+     */
+    private record Unit(String key, DeploymentPlan.Target target, List<DeploymentPlan.Entry> entries) {}
+
+    /**
+     * Reads the units recorded as completed in the given file, if it exists.
+     */
+    protected Set<String> readDoneFile(Path doneFile) throws MojoException {
+        if (doneFile == null || !Files.isRegularFile(doneFile)) {
+            return Set.of();
+        }
+        try {
+            return new HashSet<>(Files.readAllLines(doneFile, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new MojoException("Unable to read " + doneFile + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Merges the given plans by repository. An artifact found in several plans is deployed once if the copies are
+     * identical. Otherwise, the copy of the last plan is kept if {@code lastWins} is set, and the artifact is reported
+     * as a conflict if not.
+     */
+    protected DeploymentPlan merge(List<DeploymentPlan> plans, boolean lastWins) throws MojoException {
+        Map<String, DeploymentPlan.Target> targets = new LinkedHashMap<>();
+        Map<String, Map<String, DeploymentPlan.Entry>> entries = new LinkedHashMap<>();
+        List<String> conflicts = new ArrayList<>();
+        for (DeploymentPlan plan : plans) {
+            for (DeploymentPlan.Target target : plan.getTargets()) {
+                String targetKey = target.key();
+                targets.putIfAbsent(targetKey, target);
+                Map<String, DeploymentPlan.Entry> targetEntries =
+                        entries.computeIfAbsent(targetKey, k -> new LinkedHashMap<>());
+                for (DeploymentPlan.Entry entry : target.entries()) {
+                    DeploymentPlan.Entry existing = targetEntries.putIfAbsent(entry.key(), entry);
+                    if (existing == null) {
+                        continue;
+                    }
+                    if (existing.checksum().equals(entry.checksum())) {
+                        getLog().debug("Ignoring duplicate " + entry.key() + " found in " + entry.path());
+                    } else if (lastWins) {
+                        getLog().info("Replacing " + entry.key() + " of " + existing.path() + " by " + entry.path());
+                        targetEntries.put(entry.key(), entry);
+                    } else {
+                        conflicts.add(entry.key() + " for repository " + target.repositoryId() + " is staged with"
+                                + " different content in " + existing.path() + " and " + entry.path());
+                    }
+                }
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            throw new MojoException(conflicts.size() + " conflicting artifacts found in the staging directories:\n"
+                    + String.join("\n", conflicts));
+        }
+
+        return new DeploymentPlan(targets.entrySet().stream()
+                .map(e -> new DeploymentPlan.Target(
+                        e.getValue().repositoryId(),
+                        e.getValue().url(),
+                        e.getValue().retryFailedDeploymentCount(),
+                        new ArrayList<>(entries.get(e.getKey()).values())))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Deploys the given plan per repository and <code>groupId:artifactId</code>, skipping the units listed in
+     * {@code done}. Each completed unit is appended to {@code doneFile}, if any, which is removed once the whole plan
+     * has been deployed.
+     */
+    protected void executePlan(DeploymentPlan deploymentPlan, Set<String> done, Path doneFile) throws MojoException {
+        List<Unit> units = new ArrayList<>();
+        for (DeploymentPlan.Target target : deploymentPlan.getTargets()) {
+            Map<String, List<DeploymentPlan.Entry>> entriesByGa = new LinkedHashMap<>();
+            for (DeploymentPlan.Entry entry : target.entries()) {
+                entriesByGa
+                        .computeIfAbsent(entry.groupId() + ":" + entry.artifactId(), k -> new ArrayList<>())
+                        .add(entry);
+            }
+            entriesByGa.forEach((ga, entries) -> {
+                String key = target.unitKey(ga);
+                if (done.contains(key)) {
+                    getLog().info("Skipping " + ga + " for repository " + target.repositoryId()
+                            + ", already deployed");
+                } else {
+                    units.add(new Unit(key, target, entries));
+                }
+            });
+        }
+
+        if (units.isEmpty()) {
+            getLog().info("Nothing left to deploy");
+            return;
+        }
+
+        Map<String, RemoteRepository> repositories = new LinkedHashMap<>();
+        for (DeploymentPlan.Target target : deploymentPlan.getTargets()) {
+            repositories.computeIfAbsent(
+                    target.key(), k -> createDeploymentArtifactRepository(target.repositoryId(), target.url()));
+        }
+
+        long start = System.nanoTime();
+        Map<Unit, Future<?>> results = new LinkedHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(deployThreads, units.size())));
+        List<String> failures = new ArrayList<>();
+        long bytes = 0;
+        int artifacts = 0;
+        try {
+            for (Unit unit : units) {
+                RemoteRepository repository = repositories.get(unit.target().key());
+                results.put(unit, executor.submit(() -> {
+                    deploy(unit, repository);
+                    markDone(doneFile, unit.key());
+                    return null;
+                }));
+            }
+            for (Map.Entry<Unit, Future<?>> result : results.entrySet()) {
+                Unit unit = result.getKey();
+                try {
+                    result.getValue().get();
+                    artifacts += unit.entries().size();
+                    bytes += unit.entries().stream()
+                            .mapToLong(DeploymentPlan.Entry::size)
+                            .sum();
+                } catch (ExecutionException e) {
+                    String message = unit.key().substring(unit.key().lastIndexOf('\t') + 1) + " to repository "
+                            + unit.target().repositoryId() + ": " + e.getCause().getMessage();
+                    getLog().error("Deployment of " + message);
+                    failures.add(message);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoException("Interrupted while executing deployment plan", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        getLog().info("Deployed " + artifacts + " artifacts (" + bytes + " bytes) in "
+                + (units.size() - failures.size()) + " of " + units.size() + " units in " + millis + " ms");
+
+        if (!failures.isEmpty()) {
+            throw new MojoException(failures.size() + " of " + units.size() + " units failed to deploy, run the plan"
+                    + " again to resume:\n" + String.join("\n", failures));
+        }
+        if (doneFile != null) {
+            try {
+                Files.deleteIfExists(doneFile);
+            } catch (IOException e) {
+                getLog().warn("Unable to delete " + doneFile + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void deploy(Unit unit, RemoteRepository repository) throws IOException {
+        ArtifactManager artifactManager = session.getService(ArtifactManager.class);
+        List<ProducedArtifact> deployables = new ArrayList<>();
+        for (DeploymentPlan.Entry entry : unit.entries()) {
+            if (verify) {
+                verify(entry);
+            }
+            ProducedArtifact artifact = session.createProducedArtifact(
+                    entry.groupId(), entry.artifactId(), entry.version(), entry.classifier(), entry.extension(), null);
+            artifactManager.setPath(artifact, entry.path());
+            deployables.add(artifact);
+        }
+
+        ArtifactDeployerRequest request = ArtifactDeployerRequest.builder()
+                .session(session)
+                .repository(repository)
+                .artifacts(deployables)
+                .retryFailedDeploymentCount(Math.max(1, Math.min(10, unit.target().retryFailedDeploymentCount())))
+                .build();
+        getLog().info("Deploying artifacts " + deployables + " to repository " + repository);
+        session.getService(ArtifactDeployer.class).deploy(request);
+    }
+
+    private static void verify(DeploymentPlan.Entry entry) throws IOException {
+        if (!Files.isRegularFile(entry.path())) {
+            throw new IOException("The file " + entry.path() + " of " + entry.key() + " does not exist");
+        }
+        if (Files.size(entry.path()) != entry.size()
+                || !entry.checksum().equals(Checksums.calculate(entry.path(), DeploymentPlan.CHECKSUM_ALGORITHM))) {
+            throw new IOException("The file " + entry.path() + " of " + entry.key() + " has changed since the plan"
+                    + " was written");
+        }
+    }
+
+    private synchronized void markDone(Path doneFile, String key) throws IOException {
+        if (doneFile == null) {
+            return;
+        }
+        Files.writeString(
+                doneFile,
+                key + System.lineSeparator(),
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.deploy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.maven.api.RemoteRepository;
+import org.apache.maven.api.Session;
+
+/**
+ * Checksum helpers, using the same algorithm names and sidecar file extensions as Maven repositories.
+ */
+final class Checksums {
+    static final String SHA_1 = "SHA-1";
+
+    private static final String ALGORITHMS = "aether.checksums.algorithms";
+
+    private static final String LAYOUT_ALGORITHMS = "aether.layout.maven2.checksumAlgorithms";
+
+    private static final String DEFAULT_ALGORITHMS = SHA_1 + ",MD5";
+
+    private static final String OMITTED_EXTENSIONS = "aether.checksums.omitChecksumsForExtensions";
+
+    private static final String DEFAULT_OMITTED_EXTENSIONS = ".asc,.sigstore,.sigstore.json";
+
+    private Checksums() {}
+
+    /**
+     * Returns the checksum algorithms of the given repository, looked up like the repository system does when
+     * uploading the checksum files: <code>aether.checksums.algorithms.&lt;repositoryId&gt;</code>, then
+     * <code>aether.checksums.algorithms</code>, then their deprecated <code>aether.layout.maven2</code> counterparts,
+     * <code>SHA-1,MD5</code> by default.
+     */
+    static List<String> algorithms(Session session, RemoteRepository repository) {
+        return getList(
+                session,
+                DEFAULT_ALGORITHMS,
+                ALGORITHMS + "." + repository.getId(),
+                ALGORITHMS,
+                LAYOUT_ALGORITHMS + "." + repository.getId(),
+                LAYOUT_ALGORITHMS);
+    }
+
+    /**
+     * Returns whether no checksum files are published for the given artifact extension, e.g. <code>jar.asc</code>,
+     * in the given repository: <code>aether.checksums.omitChecksumsForExtensions.&lt;repositoryId&gt;</code>, then
+     * <code>aether.checksums.omitChecksumsForExtensions</code>, list the omitted extensions,
+     * <code>.asc,.sigstore,.sigstore.json</code> by default.
+     */
+    static boolean isOmitted(Session session, RemoteRepository repository, String extension) {
+        return getList(
+                        session,
+                        DEFAULT_OMITTED_EXTENSIONS,
+                        OMITTED_EXTENSIONS + "." + repository.getId(),
+                        OMITTED_EXTENSIONS)
+                .stream()
+                .anyMatch(omitted -> ("." + extension).endsWith(omitted));
+    }
+
+    private static List<String> getList(Session session, String defaultValue, String... keys) {
+        Map<String, String> properties = session.getEffectiveProperties();
+        String value = defaultValue;
+        for (String key : keys) {
+            if (properties.get(key) != null) {
+                value = properties.get(key);
+                break;
+            }
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(a -> !a.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the algorithm to verify checksums of the given repository with: SHA-1 if it is published, otherwise the
+     * first published algorithm.
+     */
+    static String verificationAlgorithm(Session session, RemoteRepository repository) {
+        List<String> algorithms = algorithms(session, repository);
+        return algorithms.isEmpty() || algorithms.contains(SHA_1) ? SHA_1 : algorithms.get(0);
+    }
+
+    /**
+     * Calculates the hex encoded checksum of the given file.
+     */
+    static String calculate(Path file, String algorithm) throws IOException {
+        MessageDigest digest = getDigest(algorithm);
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream is = Files.newInputStream(file)) {
+            int read;
+            while ((read = is.read(buffer)) >= 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Calculates the hex encoded checksum of the given content.
+     */
+    static String calculate(byte[] content, String algorithm) {
+        return HexFormat.of().formatHex(getDigest(algorithm).digest(content));
+    }
+
+    private static MessageDigest getDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Unsupported checksum algorithm " + algorithm, e);
+        }
+    }
+
+    /**
+     * Returns the extension of the checksum files of the given algorithm, e.g. {@code sha1} for {@code SHA-1}.
+     */
+    static String extension(String algorithm) {
+        return algorithm.replace("-", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Extracts the checksum from the content of a checksum file, which may be followed by a file name.
+     */
+    static String parse(String content) {
+        String trimmed = content.trim();
+        int space = trimmed.indexOf(' ');
+        return (space > 0 ? trimmed.substring(0, space) : trimmed).toLowerCase(Locale.ROOT);
+    }
+}
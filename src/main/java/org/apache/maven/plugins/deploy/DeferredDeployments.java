@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.deploy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.api.ProducedArtifact;
+import org.apache.maven.api.Project;
+import org.apache.maven.api.RemoteRepository;
+
+/**
+ * The deployments deferred until the end of the build, for the whole reactor. Rather than a deploy request per
+ * project and repository, each project only keeps flat arrays of its artifacts and of the indexes of the repositories
+ * they go to, the repositories being shared by all projects.
+ */
+final class DeferredDeployments {
+    private final List<RemoteRepository> repositories = new ArrayList<>();
+
+    private final Map<RemoteRepository, Integer> repositoryIndexes = new HashMap<>();
+
+    private final Map<Project, Deferred> deferred = new HashMap<>();
+
+    /**
+     * The deferred deployment of one project: {@code artifacts[i]} goes to the repository at index
+     * {@code repositories[i]}.
+     */
+    private record Deferred(int retryFailedDeploymentCount, int[] repositories, ProducedArtifact[] artifacts) {}
+
+    /**
+     * Records the artifacts of the given project to deploy at the end of the build.
+     */
+    synchronized void put(
+            Project project,
+            Map<RemoteRepository, List<ProducedArtifact>> artifactsByRepository,
+            int retryFailedDeploymentCount) {
+        int size = artifactsByRepository.values().stream().mapToInt(List::size).sum();
+        int[] indexes = new int[size];
+        ProducedArtifact[] artifacts = new ProducedArtifact[size];
+        int i = 0;
+        for (Map.Entry<RemoteRepository, List<ProducedArtifact>> entry : artifactsByRepository.entrySet()) {
+            int index = repositoryIndexes.computeIfAbsent(entry.getKey(), r -> {
+                repositories.add(r);
+                return repositories.size() - 1;
+            });
+            for (ProducedArtifact artifact : entry.getValue()) {
+                indexes[i] = index;
+                artifacts[i++] = artifact;
+            }
+        }
+        deferred.put(project, new Deferred(retryFailedDeploymentCount, indexes, artifacts));
+    }
+
+    /**
+     * Removes the deferred deployments of the given projects and returns their artifacts grouped by repository and
+     * number of retries, in a single pass.
+     */
+    synchronized Map<RemoteRepository, Map<Integer, List<ProducedArtifact>>> remove(Collection<Project> projects) {
+        Map<RemoteRepository, Map<Integer, List<ProducedArtifact>>> result = new LinkedHashMap<>();
+        for (Project project : projects) {
+            Deferred d = deferred.remove(project);
+            if (d == null) {
+                continue;
+            }
+            for (int i = 0; i < d.artifacts().length; i++) {
+                result.computeIfAbsent(repositories.get(d.repositories()[i]), r -> new LinkedHashMap<>())
+                        .computeIfAbsent(d.retryFailedDeploymentCount(), c -> new ArrayList<>())
+                        .add(d.artifacts()[i]);
+            }
+        }
+        return result;
+    }
+}
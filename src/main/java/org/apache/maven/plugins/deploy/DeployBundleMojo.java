@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.deploy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.maven.api.ProducedArtifact;
+import org.apache.maven.api.RemoteRepository;
+import org.apache.maven.api.plugin.MojoException;
+import org.apache.maven.api.plugin.annotations.Mojo;
+import org.apache.maven.api.plugin.annotations.Parameter;
+import org.apache.maven.api.services.ArtifactDeployer;
+import org.apache.maven.api.services.ArtifactDeployerException;
+import org.apache.maven.api.services.ArtifactDeployerRequest;
+import org.apache.maven.api.services.ArtifactManager;
+
+/**
+ * Deploys all artifacts contained in a bundle archive (a ZIP or JAR file holding a Maven 2 repository layout) to a
+ * remote repository. The whole bundle is checked against the repository layout before anything is deployed. The
+ * versions are then deployed one at a time, each being extracted to a temporary directory deleted once it is
+ * deployed, so the bundle is never extracted as a whole. Checksum files and repository metadata present in the bundle
+ * are ignored, as they are generated during the deployment.
+ *
+ * @since 4.0.0-beta-3
+ */
+@Mojo(name = "deploy-bundle", projectRequired = false)
+public class DeployBundleMojo extends AbstractDeployMojo {
+    private static final List<String> IGNORED_SUFFIXES = List.of(".md5", ".sha1", ".sha256", ".sha512");
+
+    private static final String SNAPSHOT = "SNAPSHOT";
+
+    private static final Pattern TIMESTAMP = Pattern.compile("\\d{8}\\.\\d{6}-\\d+");
+
+    /**
+     * The bundle archive to be deployed. Its entries must follow the Maven 2 repository layout, starting at the root
+     * of the archive, i.e. {@code groupId/as/path/artifactId/version/artifactId-version[-classifier].extension}.
+     * The files of a snapshot version may also be named after a timestamped version, e.g.
+     * {@code artifactId-1.0-20260101.120000-1.jar} for version {@code 1.0-SNAPSHOT}: they are deployed as a new
+     * snapshot of that version.
+     */
+    @Parameter(property = "bundle", required = true)
+    Path bundle;
+
+    /**
+     * Server Id to map on the &lt;id&gt; under &lt;server&gt; section of settings.xml In most cases, this parameter
+     * will be required for authentication.
+     */
+    @Parameter(property = "repositoryId", defaultValue = "remote-repository", required = true)
+    private String repositoryId;
+
+    /**
+     * URL where the artifacts will be deployed. <br/>
+     * ie ( file:///C:/m2-repo or scp://host.com/path/to/repo )
+     */
+    @Parameter(property = "url", required = true)
+    private String url;
+
+    /**
+     * Set this to 'true' to bypass the bundle deploy.
+     */
+    @Parameter(property = "maven.deploy.bundle.skip", defaultValue = "false")
+    private boolean skip;
+
+    public void execute() throws MojoException {
+        if (skip) {
+            getLog().info("Skipping bundle deployment");
+            return;
+        }
+
+        if (!Files.isRegularFile(bundle)) {
+            String message = "The specified bundle '" + bundle + "' does not exist";
+            getLog().error(message);
+            throw new MojoException(message);
+        }
+
+        RemoteRepository deploymentRepository =
+                createDeploymentArtifactRepository(repositoryId, url.replace(File.separator, "/"));
+
+        if (deploymentRepository.getProtocol().isEmpty()) {
+            throw new MojoException("No transfer protocol found.");
+        }
+
+        failIfOffline();
+
+        try (FileSystem fileSystem = FileSystems.newFileSystem(bundle)) {
+            Map<String, Path> entriesByKey = new LinkedHashMap<>();
+            Map<Path, Map<ProducedArtifact, Path>> entriesByVersion = new LinkedHashMap<>();
+            for (Path root : fileSystem.getRootDirectories()) {
+                List<Path> files;
+                try (Stream<Path> stream = Files.walk(root)) {
+                    files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+                }
+                for (Path file : files) {
+                    if (isIgnored(file)) {
+                        getLog().debug("Ignoring bundle entry " + file);
+                        continue;
+                    }
+                    Path relativePath = root.relativize(file);
+                    ProducedArtifact artifact = createArtifact(relativePath);
+                    Path previous = entriesByKey.putIfAbsent(artifact.key(), relativePath);
+                    if (previous != null) {
+                        throw new MojoException("The bundle entries " + previous + " and " + relativePath
+                                + " are both the artifact " + artifact.key());
+                    }
+                    entriesByVersion
+                            .computeIfAbsent(relativePath.getParent(), k -> new LinkedHashMap<>())
+                            .put(artifact, file);
+                }
+            }
+
+            if (entriesByVersion.isEmpty()) {
+                throw new MojoException("The bundle '" + bundle + "' does not contain any artifact to deploy");
+            }
+
+            getLog().info("Deploying " + entriesByKey.size() + " artifacts from bundle " + bundle + " to repository "
+                    + deploymentRepository);
+            for (Map<ProducedArtifact, Path> entries : entriesByVersion.values()) {
+                deploy(entries, deploymentRepository);
+            }
+        } catch (IOException e) {
+            throw new MojoException("Error reading bundle " + bundle + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Deploys the artifacts of one version of the bundle. The repository system expects the artifacts on the default
+     * file system, so they are extracted to a temporary directory first, deleted once deployed: the disk space needed
+     * is bounded by the size of the largest version of the bundle.
+     */
+    private void deploy(Map<ProducedArtifact, Path> entries, RemoteRepository deploymentRepository)
+            throws IOException {
+        Path tempDir = Files.createTempDirectory("maven-deploy-bundle");
+        try {
+            ArtifactManager artifactManager = session.getService(ArtifactManager.class);
+            List<ProducedArtifact> deployables = new ArrayList<>();
+            for (Map.Entry<ProducedArtifact, Path> entry : entries.entrySet()) {
+                Path file = tempDir.resolve(entry.getValue().getFileName().toString());
+                Files.copy(entry.getValue(), file);
+                artifactManager.setPath(entry.getKey(), file);
+                deployables.add(entry.getKey());
+            }
+
+            ArtifactDeployerRequest deployRequest = ArtifactDeployerRequest.builder()
+                    .session(session)
+                    .repository(deploymentRepository)
+                    .artifacts(deployables)
+                    .retryFailedDeploymentCount(Math.max(1, Math.min(10, getRetryFailedDeploymentCount())))
+                    .build();
+
+            getLog().debug("Deploying artifacts " + deployables);
+            session.getService(ArtifactDeployer.class).deploy(deployRequest);
+        } catch (ArtifactDeployerException e) {
+            throw new MojoException(e.getMessage(), e);
+        } finally {
+            deleteRecursively(tempDir, "temporary directory");
+        }
+    }
+
+    /**
+     * Creates the artifact matching the given bundle entry, based on its location in the Maven 2 repository layout.
+     */
+    private ProducedArtifact createArtifact(Path relativePath) throws MojoException {
+        int count = relativePath.getNameCount();
+        if (count < 4) {
+            throw invalidEntry(relativePath);
+        }
+        String fileName = relativePath.getFileName().toString();
+        String version = relativePath.getName(count - 2).toString();
+        String artifactId = relativePath.getName(count - 3).toString();
+        String groupId = relativePath
+                .subpath(0, count - 3)
+                .toString()
+                .replace(relativePath.getFileSystem().getSeparator(), ".");
+
+        String prefix = artifactId + "-" + version;
+        if (version.endsWith(SNAPSHOT)) {
+            String basePrefix = artifactId + "-" + version.substring(0, version.length() - SNAPSHOT.length());
+            if (fileName.startsWith(basePrefix)) {
+                Matcher matcher = TIMESTAMP.matcher(fileName).region(basePrefix.length(), fileName.length());
+                if (matcher.lookingAt()) {
+                    prefix = fileName.substring(0, matcher.end());
+                }
+            }
+        }
+        if (!fileName.startsWith(prefix) || fileName.length() <= prefix.length() + 1) {
+            throw invalidEntry(relativePath);
+        }
+        String remainder = fileName.substring(prefix.length());
+        String classifier;
+        String extension;
+        if (remainder.charAt(0) == '-') {
+            int dot = remainder.indexOf('.');
+            if (dot < 2 || dot == remainder.length() - 1) {
+                throw invalidEntry(relativePath);
+            }
+            classifier = remainder.substring(1, dot);
+            extension = remainder.substring(dot + 1);
+        } else if (remainder.charAt(0) == '.') {
+            classifier = "";
+            extension = remainder.substring(1);
+        } else {
+            throw invalidEntry(relativePath);
+        }
+
+        return session.createProducedArtifact(groupId, artifactId, version, classifier, extension, null);
+    }
+
+    private static boolean isIgnored(Path entry) {
+        String fileName = entry.getFileName().toString();
+        return fileName.startsWith("maven-metadata") || IGNORED_SUFFIXES.stream().anyMatch(fileName::endsWith);
+    }
+
+    private MojoException invalidEntry(Path relativePath) {
+        return new MojoException("The bundle entry " + relativePath + " does not follow the Maven 2 repository layout");
+    }
+}
@@ -29,9 +29,11 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import org.apache.maven.api.Artifact;
 import org.apache.maven.api.ProducedArtifact;
@@ -93,9 +95,9 @@ public class DeployFileMojo extends AbstractDeployMojo {
     private String description;
 
     /**
-     * File to be deployed.
+     * File to be deployed. Required unless {@link #watchDirectory} is set.
      */
-    @Parameter(property = "file", required = true)
+    @Parameter(property = "file")
     Path file;
 
     /**
@@ -167,6 +169,18 @@ public class DeployFileMojo extends AbstractDeployMojo {
     @Parameter(property = "files")
     private String files;
 
+    /**
+     * A file listing extra side artifacts to deploy, as an alternative to {@link #files}, {@link #types} and
+     * {@link #classifiers} when there are many of them. Each line holds one entry in the form
+     * <code>file,type,classifier</code>; blank lines and lines starting with <code>#</code> are ignored. Relative file
+     * paths are resolved against the directory containing the attachments file. All entries are validated before
+     * anything is deployed, and the side artifacts are deployed in the same request as the main artifact.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "attachments")
+    private Path attachments;
+
     /**
      * Set this to 'true' to bypass artifact deploy
      * It's not a real boolean as it can have more than 2 values:
@@ -181,6 +195,92 @@ public class DeployFileMojo extends AbstractDeployMojo {
     @Parameter(property = "maven.deploy.file.skip", defaultValue = "false")
     private String skip = Boolean.FALSE.toString();
 
+    /**
+     * Turns this goal into a long-running ingestion process watching the given directory: every POM dropped into it
+     * is deployed along with all files named <code>artifactId-version[-classifier].extension</code> next to it,
+     * through the same session and repository connection. The {@link #file} parameter and the artifact coordinates
+     * parameters are ignored in this mode. Files are deployed once they stopped changing, a POM waiting for its files
+     * still changing, so the POM should be dropped last, once all its files are in place. A POM whose deployment fails
+     * is only deployed again once dropped again, and makes the goal fail once the watch ends.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "watchDirectory")
+    private Path watchDirectory;
+
+    /**
+     * The ledger recording the files deployed from the {@link #watchDirectory}, so that they are never deployed
+     * twice. Defaults to <code>.deploy-ledger</code> inside the watched directory.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "watchLedger")
+    private Path watchLedger;
+
+    /**
+     * The time in milliseconds the size and modification time of a dropped file must remain unchanged before it is
+     * deployed.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "watchQuietPeriod", defaultValue = "5000")
+    private long watchQuietPeriod;
+
+    /**
+     * The time in milliseconds after which watching stops if no new file has been dropped. Watching never stops if
+     * this value is not positive.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "watchIdleTimeout", defaultValue = "0")
+    private long watchIdleTimeout;
+
+    /**
+     * The number of dropped files deployed in one request. All versions of a <code>groupId:artifactId</code> are
+     * deployed in the same request, so that its metadata is only updated once, so a request may hold more files.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "watchBatchSize", defaultValue = "50")
+    private int watchBatchSize;
+
+    /**
+     * The number of requests deployed in parallel while watching.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "watchThreads", defaultValue = "1")
+    private int watchThreads;
+
+    /**
+     * Whether the deployed artifacts are verified once deployed: the SHA-1 checksum published next to each of them,
+     * or the first checksum algorithm of the repository if it does not publish SHA-1 checksums, is fetched,
+     * concurrently using up to {@link #verifyThreads} threads, and compared with the checksum of the local file. The
+     * artifacts themselves are not downloaded again, except those no checksum is published for, e.g. signatures. The
+     * time each artifact took to become visible is logged in debug mode.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "maven.deploy.verifyDeployment", defaultValue = "false")
+    private boolean verifyDeployment;
+
+    /**
+     * The time, in seconds, to wait for each deployed artifact to become visible when
+     * {@link #verifyDeployment verifying the deployment}.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "maven.deploy.verifyTimeout", defaultValue = "60")
+    private long verifyTimeout;
+
+    /**
+     * The maximum number of checksums fetched concurrently when {@link #verifyDeployment verifying the deployment}.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "maven.deploy.verifyThreads", defaultValue = "4")
+    private int verifyThreads;
+
     void initProperties() throws MojoException {
         Path deployedPom;
         if (pomFile != null) {
@@ -241,6 +341,15 @@ public class DeployFileMojo extends AbstractDeployMojo {
             return;
         }
 
+        if (watchDirectory != null) {
+            watchDropDirectory();
+            return;
+        }
+
+        if (file == null) {
+            throw new MojoException("You must specify 'file' or 'watchDirectory'");
+        }
+
         if (!Files.exists(file)) {
             String message = "The specified file '" + file + "' does not exist";
             getLog().error(message);
@@ -322,6 +431,7 @@ public class DeployFileMojo extends AbstractDeployMojo {
             deployables.add(javadocArtifact);
         }
 
+        List<SideArtifact> sideArtifacts = new ArrayList<>();
         if (files != null) {
             if (types == null) {
                 throw new MojoException("You must specify 'types' if you specify 'files'");
@@ -329,57 +439,27 @@ public class DeployFileMojo extends AbstractDeployMojo {
             if (classifiers == null) {
                 throw new MojoException("You must specify 'classifiers' if you specify 'files'");
             }
-            int filesLength = countCommas(files);
-            int typesLength = countCommas(types);
-            int classifiersLength = countCommas(classifiers);
-            if (typesLength != filesLength) {
+            String[] fileEntries = files.split(",", -1);
+            String[] typeEntries = types.split(",", -1);
+            String[] classifierEntries = classifiers.split(",", -1);
+            if (typeEntries.length != fileEntries.length) {
                 throw new MojoException("You must specify the same number of entries in 'files' and "
-                        + "'types' (respectively " + filesLength + " and " + typesLength + " entries )");
+                        + "'types' (respectively " + (fileEntries.length - 1) + " and " + (typeEntries.length - 1)
+                        + " entries )");
             }
-            if (classifiersLength != filesLength) {
+            if (classifierEntries.length != fileEntries.length) {
                 throw new MojoException("You must specify the same number of entries in 'files' and "
-                        + "'classifiers' (respectively " + filesLength + " and " + classifiersLength + " entries )");
+                        + "'classifiers' (respectively " + (fileEntries.length - 1) + " and "
+                        + (classifierEntries.length - 1) + " entries )");
             }
-            int fi = 0;
-            int ti = 0;
-            int ci = 0;
-            for (int i = 0; i <= filesLength; i++) {
-                int nfi = files.indexOf(',', fi);
-                if (nfi == -1) {
-                    nfi = files.length();
-                }
-                int nti = types.indexOf(',', ti);
-                if (nti == -1) {
-                    nti = types.length();
-                }
-                int nci = classifiers.indexOf(',', ci);
-                if (nci == -1) {
-                    nci = classifiers.length();
-                }
-                Path file = Paths.get(files.substring(fi, nfi).replace("/", File.separator));
+            for (int i = 0; i < fileEntries.length; i++) {
+                Path file = Paths.get(fileEntries[i].replace("/", File.separator));
                 if (!Files.isRegularFile(file)) {
                     // try relative to the project basedir just in case
-                    file = Paths.get(files.substring(fi, nfi));
-                }
-                if (Files.isRegularFile(file)) {
-                    String extension = getExtension(file);
-                    String type = types.substring(ti, nti).trim();
-
-                    ProducedArtifact deployable = session.createProducedArtifact(
-                            artifact.getGroupId(),
-                            artifact.getArtifactId(),
-                            artifact.getVersion().toString(),
-                            classifiers.substring(ci, nci).trim(),
-                            extension,
-                            type);
-                    artifactManager.setPath(deployable, file);
-                    deployables.add(deployable);
-                } else {
-                    throw new MojoException("Specified side artifact " + file + " does not exist");
+                    file = Paths.get(fileEntries[i]);
                 }
-                fi = nfi + 1;
-                ti = nti + 1;
-                ci = nci + 1;
+                sideArtifacts.add(new SideArtifact(
+                        file.toString(), file, typeEntries[i].trim(), classifierEntries[i].trim()));
             }
         } else {
             if (types != null) {
@@ -389,6 +469,22 @@ public class DeployFileMojo extends AbstractDeployMojo {
                 throw new MojoException("You must specify 'files' if you specify 'classifiers'");
             }
         }
+        if (attachments != null) {
+            sideArtifacts.addAll(readAttachments(attachments));
+        }
+        validateSideArtifacts(sideArtifacts);
+
+        for (SideArtifact sideArtifact : sideArtifacts) {
+            ProducedArtifact deployable = session.createProducedArtifact(
+                    artifact.getGroupId(),
+                    artifact.getArtifactId(),
+                    artifact.getVersion().toString(),
+                    sideArtifact.classifier(),
+                    getExtension(sideArtifact.file()),
+                    sideArtifact.type());
+            artifactManager.setPath(deployable, sideArtifact.file());
+            deployables.add(deployable);
+        }
 
         try {
             ArtifactDeployerRequest deployRequest = ArtifactDeployerRequest.builder()
@@ -401,6 +497,10 @@ public class DeployFileMojo extends AbstractDeployMojo {
             getLog().info("Deploying artifacts " + deployables + " to repository " + deploymentRepository);
             ArtifactDeployer artifactDeployer = session.getService(ArtifactDeployer.class);
             artifactDeployer.deploy(deployRequest);
+            if (verifyDeployment) {
+                new DeploymentVerifier(session, getLog(), verifyThreads, verifyTimeout * 1000)
+                        .verify(List.of(deployRequest));
+            }
         } catch (ArtifactDeployerException e) {
             throw new MojoException(e.getMessage(), e);
         } finally {
@@ -417,6 +517,99 @@ public class DeployFileMojo extends AbstractDeployMojo {
         }
     }
 
+    private void watchDropDirectory() throws MojoException {
+        if (!Files.isDirectory(watchDirectory)) {
+            throw new MojoException("The specified watch directory '" + watchDirectory + "' does not exist");
+        }
+
+        RemoteRepository deploymentRepository =
+                createDeploymentArtifactRepository(repositoryId, url.replace(File.separator, "/"));
+
+        if (deploymentRepository.getProtocol().isEmpty()) {
+            throw new MojoException("No transfer protocol found.");
+        }
+
+        failIfOffline();
+
+        new DropDirectoryWatcher(
+                        session,
+                        getLog(),
+                        deploymentRepository,
+                        Math.max(1, Math.min(10, getRetryFailedDeploymentCount())),
+                        this::readModel,
+                        watchDirectory,
+                        watchLedger != null ? watchLedger : watchDirectory.resolve(".deploy-ledger"),
+                        watchQuietPeriod,
+                        watchIdleTimeout,
+                        watchBatchSize,
+                        watchThreads)
+                .run();
+    }
+
+    /**
+     * Reads the side artifacts listed in the given attachments file.
+     */
+    private List<SideArtifact> readAttachments(Path attachmentsFile) throws MojoException {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(attachmentsFile);
+        } catch (IOException e) {
+            throw new MojoException("Error reading attachments file " + attachmentsFile + ": " + e.getMessage(), e);
+        }
+        Path basedir = attachmentsFile.toAbsolutePath().getParent();
+        List<SideArtifact> result = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String source = attachmentsFile.getFileName() + ":" + (i + 1);
+            int classifierIdx = line.lastIndexOf(',');
+            int typeIdx = classifierIdx > 0 ? line.lastIndexOf(',', classifierIdx - 1) : -1;
+            if (typeIdx <= 0) {
+                throw new MojoException("Invalid entry at " + source + ": expected 'file,type,classifier' but got '"
+                        + line + "'");
+            }
+            String type = line.substring(typeIdx + 1, classifierIdx).trim();
+            String classifier = line.substring(classifierIdx + 1).trim();
+            Path file = basedir.resolve(line.substring(0, typeIdx).trim());
+            result.add(new SideArtifact(source, file, type, classifier));
+        }
+        return result;
+    }
+
+    /**
+     * Validates all side artifacts concurrently, and reports every invalid entry at once.
+     */
+    private void validateSideArtifacts(List<SideArtifact> sideArtifacts) throws MojoException {
+        List<String> errors = sideArtifacts.parallelStream()
+                .map(SideArtifact::validate)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        if (errors.size() == 1) {
+            throw new MojoException(errors.get(0));
+        } else if (!errors.isEmpty()) {
+            throw new MojoException(errors.size() + " side artifacts are invalid:" + System.lineSeparator()
+                    + String.join(System.lineSeparator(), errors));
+        }
+    }
+
+    /**
+     * An extra side artifact to deploy, along with where it has been specified.
+     */
+    private record SideArtifact(String source, Path file, String type, String classifier) {
+        String validate() {
+            if (!Files.isRegularFile(file)) {
+                return "Specified side artifact " + source + " does not exist"
+                        + (source.equals(file.toString()) ? "" : ": " + file);
+            }
+            if (!Files.isReadable(file)) {
+                return "Specified side artifact " + source + " is not readable: " + file;
+            }
+            return null;
+        }
+    }
+
     /**
      * Gets the path of the specified artifact within the local repository. Note that the returned path need not exist
      * (yet).
@@ -559,16 +752,6 @@ public class DeployFileMojo extends AbstractDeployMojo {
 
     // these below should be shared (duplicated in m-install-p, m-deploy-p)
 
-    private static int countCommas(String str) {
-        int count = 0;
-        int idx = 0;
-        while ((idx = str.indexOf(',', idx)) != -1) {
-            count++;
-            idx++;
-        }
-        return count;
-    }
-
     /**
      * Get file extension, honoring various {@code tar.xxx} combinations.
      */
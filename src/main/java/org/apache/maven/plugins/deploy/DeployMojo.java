@@ -18,20 +18,38 @@
  */
 package org.apache.maven.plugins.deploy;
 
+import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import org.apache.maven.api.Artifact;
 import org.apache.maven.api.MojoExecution;
 import org.apache.maven.api.ProducedArtifact;
 import org.apache.maven.api.Project;
 import org.apache.maven.api.RemoteRepository;
+import org.apache.maven.api.SessionData;
 import org.apache.maven.api.di.Inject;
 import org.apache.maven.api.model.DistributionManagement;
 import org.apache.maven.api.model.Plugin;
@@ -43,6 +61,8 @@ import org.apache.maven.api.services.ArtifactDeployer;
 import org.apache.maven.api.services.ArtifactDeployerRequest;
 import org.apache.maven.api.services.ArtifactManager;
 import org.apache.maven.api.services.ProjectManager;
+import org.apache.maven.api.services.Transport;
+import org.apache.maven.api.services.TransportProvider;
 
 /**
  * Deploys an artifact to remote repository.
@@ -54,7 +74,15 @@ import org.apache.maven.api.services.ProjectManager;
 public class DeployMojo extends AbstractDeployMojo {
     private static final Pattern ALT_LEGACY_REPO_SYNTAX_PATTERN = Pattern.compile("(.+?)::(.+?)::(.+)");
 
-    private static final Pattern ALT_REPO_SYNTAX_PATTERN = Pattern.compile("(.+?)::(.+)");
+    private static final SessionData.Key<Object> CHECKPOINT_LOCK =
+            SessionData.key(Object.class, DeployMojo.class.getName() + ".checkpoint");
+
+    private static final SessionData.Key<DeferredDeployments> DEFERRED_DEPLOYMENTS =
+            SessionData.key(DeferredDeployments.class, DeployMojo.class.getName());
+
+    private static final SessionData.Key<Subtrees> SUBTREES = SessionData.key(Subtrees.class);
+
+    private static final SessionData.Key<TransportWarmer> TRANSPORT_WARMER = SessionData.key(TransportWarmer.class);
 
     @Inject
     private Project project;
@@ -113,6 +141,253 @@ public class DeployMojo extends AbstractDeployMojo {
     @Parameter(property = "altReleaseDeploymentRepository")
     private String altReleaseDeploymentRepository;
 
+    /**
+     * Additional repositories the project artifacts are deployed to, on top of the one selected from
+     * &lt;distributionManagement&gt; or the alternative deployment repositories, as a comma separated list of
+     * <code>id::url</code> entries. The deployments to the different repositories run concurrently. An additional
+     * repository may not be the deployment repository, or the repository of a {@link #routes route}, as well.
+     *
+     * @since 4.0.0-beta-3
+     * @see #requireAllDeploymentRepositories
+     */
+    @Parameter(property = "additionalDeploymentRepositories")
+    private String additionalDeploymentRepositories;
+
+    /**
+     * Whether the build fails when the deployment to one of the {@link #additionalDeploymentRepositories} fails. If
+     * set to {@code false}, such failures are only reported as warnings, while a failing deployment to the main
+     * repository still fails the build. Note that artifacts already uploaded to the other repositories are not removed
+     * when the build fails.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "requireAllDeploymentRepositories", defaultValue = "true")
+    private boolean requireAllDeploymentRepositories;
+
+    /**
+     * The maximum number of upload lanes deployed concurrently. Each repository gets as many lanes as
+     * {@link #deployLanes}, one by default, so with the default single lane this is the maximum number of repositories
+     * deployed to concurrently, and the deployments to the same repository happen sequentially. With more lanes, the
+     * lanes of all repositories share these threads, and a repository is deployed to concurrently by up to
+     * {@link #deployLanes} of them.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "deployThreads", defaultValue = "4")
+    private int deployThreads;
+
+    /**
+     * Rules sending some of the project artifacts to other repositories than the deployment repository, e.g. to keep
+     * large distribution archives away from the repository developers resolve from. The first matching route wins;
+     * artifacts not matched by any route go to the deployment repository. The deployments to the different
+     * repositories run concurrently.
+     * <pre>
+     * &lt;routes&gt;
+     *   &lt;route&gt;
+     *     &lt;extension&gt;tar.gz&lt;/extension&gt;
+     *     &lt;minSize&gt;104857600&lt;/minSize&gt;
+     *     &lt;repository&gt;blobs::https://blobs.example.com/maven&lt;/repository&gt;
+     *   &lt;/route&gt;
+     * &lt;/routes&gt;
+     * </pre>
+     *
+     * @since 4.0.0-beta-3
+     * @see DeploymentRoute
+     */
+    @Parameter
+    private List<DeploymentRoute> routes;
+
+    /**
+     * If set, the deploy requests are not executed but saved to this file, along with the size and checksum of every
+     * artifact. The plan can be executed later, possibly on another machine, using the
+     * <a href="deploy-plan-mojo.html">deploy-plan</a> goal. Setting this parameter implies {@link #deployAtEnd}.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "maven.deploy.plan")
+    private Path deploymentPlan;
+
+    /**
+     * If set, the artifacts are not deployed but copied into this directory, using the Maven 2 repository layout,
+     * along with a <code>deploy.plan</code> file describing the deploy requests. The staging directories of several
+     * builds, e.g. the shards of a CI build, can then be deployed at once using the
+     * <a href="deploy-staged-mojo.html">deploy-staged</a> goal. Setting this parameter implies {@link #deployAtEnd}.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "maven.deploy.stagingDirectory")
+    private Path stagingDirectory;
+
+    /**
+     * If set, the artifacts are not deployed but queued into this directory, which works even when Maven is offline.
+     * Each build adds its own entry, holding a copy of the artifacts and a <code>deploy.plan</code> file, and the
+     * queued entries are deployed later, once the repositories are reachable, using the
+     * <a href="deploy-outbox-mojo.html">deploy-outbox</a> goal. Setting this parameter implies {@link #deployAtEnd}.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "maven.deploy.outbox")
+    private Path outbox;
+
+    /**
+     * Whether the artifacts written to the {@link #stagingDirectory} or the {@link #outbox} are hard linked to the
+     * build output rather than copied, when both are on the same file system. This makes staging almost free, but
+     * the staged files then change if the build output is modified in place before they are deployed, which the
+     * deployment detects and rejects. Files that cannot be linked are copied. This only applies to the plugin's own
+     * staging copies: artifacts deployed to a <code>file:</code> repository are always copied by the repository
+     * system, which offers no way to link them instead.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "maven.deploy.linkFiles", defaultValue = "false")
+    private boolean linkFiles;
+
+    /**
+     * Whether pre-flight checks are run before anything is uploaded: every artifact file must exist, be readable and
+     * keep a stable size, no artifact may be deployed to the same repository from two different files, and every
+     * target repository must be reachable. With {@link #deployAtEnd}, the whole reactor is checked at once, so the
+     * deployment fails in seconds rather than halfway through.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "maven.deploy.preflight", defaultValue = "false")
+    private boolean preflight;
+
+    /**
+     * The path, relative to the repository root, of a small file uploaded to every target repository during the
+     * {@link #preflight pre-flight checks}, to check the credentials and write permissions. The repositories must
+     * accept this file being uploaded again and again. If not set, only the connectivity to the repositories is
+     * checked: a small file they are not expected to hold is requested, and any answer, including not found, passes,
+     * so neither the credentials nor the write permissions are checked.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "maven.deploy.preflight.probe")
+    private String preflightProbe;
+
+    /**
+     * Whether the deployed artifacts are verified once deployed: the SHA-1 checksum published next to each of them,
+     * or the first checksum algorithm of the repository if it does not publish SHA-1 checksums, is fetched,
+     * concurrently using up to {@link #verifyThreads} threads, and compared with the checksum of the local file. The
+     * artifacts themselves are not downloaded again, except those no checksum is published for, e.g. signatures. The
+     * time each artifact took to become visible is logged in debug mode.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "maven.deploy.verifyDeployment", defaultValue = "false")
+    private boolean verifyDeployment;
+
+    /**
+     * The time, in seconds, to wait for each deployed artifact to become visible when
+     * {@link #verifyDeployment verifying the deployment}.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "maven.deploy.verifyTimeout", defaultValue = "60")
+    private long verifyTimeout;
+
+    /**
+     * The maximum number of checksums fetched concurrently when {@link #verifyDeployment verifying the deployment}.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "maven.deploy.verifyThreads", defaultValue = "4")
+    private int verifyThreads;
+
+    /**
+     * Whether the <code>groupId/artifactId/maven-metadata.xml</code> files are read back once deployed, to repair
+     * them if a concurrent deployer of the same <code>groupId:artifactId</code> overwrote them, dropping the deployed
+     * versions. Missing versions are merged into the latest remote metadata, which is uploaded again and read back
+     * until it is complete, waiting a random delay between attempts. This lets concurrent pipelines deploy the same
+     * artifacts without being serialized.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "maven.deploy.reconcileMetadata", defaultValue = "false")
+    private boolean reconcileMetadata;
+
+    /**
+     * The maximum number of times the metadata is repaired when {@link #reconcileMetadata reconciling} it.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "maven.deploy.reconcileMetadataAttempts", defaultValue = "5")
+    private int reconcileMetadataAttempts;
+
+    /**
+     * Whether, when the deployment is deferred to the end of the build, the target repositories are connected to in
+     * the background as soon as the first project is done, while the reactor is still building. The deployment then
+     * starts with DNS lookups, TLS handshakes and authentication already done, as far as the transport keeps them for
+     * the session.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "maven.deploy.warmTransports", defaultValue = "false")
+    private boolean warmTransports;
+
+    /**
+     * The number of machines sharing the deployment of the same build output. Each of them deploys a deterministic,
+     * size balanced subset of the artifacts, selected by {@link #shardIndex}. All artifacts of a given
+     * <code>groupId:artifactId</code> are deployed by the same shard, so its repository metadata is only updated by one
+     * machine. Setting this parameter to more than 1 implies {@link #deployAtEnd}.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "maven.deploy.shardCount", defaultValue = "1")
+    private int shardCount;
+
+    /**
+     * The zero based index of the shard deployed by this build, between 0 and {@link #shardCount} - 1.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "maven.deploy.shardIndex", defaultValue = "0")
+    private int shardIndex;
+
+    /**
+     * The number of parallel upload lanes per repository. With more than one lane, the artifacts of each
+     * <code>groupId:artifactId</code> are kept together and assigned, largest first, to the least loaded lane, so
+     * that a large artifact does not end up being uploaded last. Within a version, the POM is always uploaded last.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "maven.deploy.lanes", defaultValue = "1")
+    private int deployLanes;
+
+    /**
+     * The time, in seconds, the deployment is expected to finish in. If the throughput observed while deploying
+     * indicates the deployment will take longer, a warning is logged as soon as this is known. Disabled by default.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "maven.deploy.deadline", defaultValue = "0")
+    private long deployDeadline;
+
+    /**
+     * Whether the artifacts are published in two phases: all artifacts of released versions but the POMs are uploaded
+     * first, without updating the repository metadata, and the POMs are only deployed, along with the
+     * <code>maven-metadata.xml</code> files listing their versions, once the first phase has fully succeeded.
+     * Consumers then only see a version once all the artifacts it describes are available. Both phases spread their
+     * uploads over the {@link #deployThreads threads} and {@link #deployLanes lanes} configured. Snapshot versions
+     * are deployed at once in the second phase, as each deployment gives its snapshots their own timestamp and build
+     * number.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "maven.deploy.twoPhasePublication", defaultValue = "false")
+    private boolean twoPhasePublication;
+
+    /**
+     * Whether the projects of an aggregator are deployed as soon as all of them are done, instead of waiting for the
+     * whole reactor. This makes large independent parts of a build available earlier, at the price of the all or
+     * nothing guarantee of {@link #deployAtEnd}, which then only holds per aggregator. Only used together with
+     * {@link #deployAtEnd}, and ignored when a deployment plan, a staging directory or sharding is used.
+     *
+     * @since 4.0.0-beta-3
+     */
+    @Parameter(property = "maven.deploy.checkpoints", defaultValue = "false")
+    private boolean checkpoints;
+
     /**
      * Set this to 'true' to bypass artifact deploy
      * Since 3.0.0-M2 it's not anymore a real boolean as it can have more than 2 values:
@@ -151,8 +426,12 @@ public class DeployMojo extends AbstractDeployMojo {
         session.getPluginContext(project).put(State.class.getName(), state);
     }
 
-    private void putState(ArtifactDeployerRequest request) {
-        session.getPluginContext(project).put(ArtifactDeployerRequest.class.getName(), request);
+    private DeferredDeployments getDeferredDeployments() {
+        return session.getData().computeIfAbsent(DEFERRED_DEPLOYMENTS, DeferredDeployments::new);
+    }
+
+    private TransportWarmer getTransportWarmer() {
+        return session.getData().computeIfAbsent(TRANSPORT_WARMER, () -> new TransportWarmer(session, getLog()));
     }
 
     private State getState(Project project) {
@@ -170,18 +449,24 @@ public class DeployMojo extends AbstractDeployMojo {
             getLog().info("Skipping artifact deployment");
             putState(State.SKIPPED);
         } else {
-            failIfOffline();
+            if (outbox == null) {
+                failIfOffline();
+            }
             warnIfAffectedPackagingAndMaven(project.getPackaging().id());
 
-            if (!deployAtEnd) {
+            if (!isDeferred()) {
                 getLog().info("Deploying deploy for " + project.getGroupId() + ":" + project.getArtifactId() + ":"
                         + project.getVersion() + " at end");
-                deploy(createDeployerRequest());
+                publish(createDeployerRequests());
                 putState(State.DEPLOYED);
             } else {
                 // compute the request
+                Map<RemoteRepository, List<ProducedArtifact>> artifactsByRepository = getArtifactsByRepository();
+                getDeferredDeployments().put(project, artifactsByRepository, getRetryCount());
+                if (warmTransports && outbox == null && stagingDirectory == null && deploymentPlan == null) {
+                    getTransportWarmer().warm(artifactsByRepository.keySet());
+                }
                 putState(State.TO_BE_DEPLOYED);
-                putState(createDeployerRequest());
                 if (!allProjectsMarked()) {
                     getLog().info("Deferring deploy for " + project.getGroupId() + ":" + project.getArtifactId() + ":"
                             + project.getVersion() + " at end");
@@ -191,7 +476,92 @@ public class DeployMojo extends AbstractDeployMojo {
 
         if (allProjectsMarked()) {
             deployAllAtOnce();
+        } else if (checkpoints && isCheckpointable()) {
+            deployCompletedSubtrees();
+        }
+    }
+
+    /**
+     * Checkpoints need the requests of a subtree to be deployable on their own, which is not the case when all
+     * requests of the reactor are needed as a whole.
+     */
+    private boolean isCheckpointable() {
+        return deployAtEnd && deploymentPlan == null && stagingDirectory == null && outbox == null && shardCount <= 1;
+    }
+
+    /**
+     * Deploys the requests of every aggregator subtree of the current project whose projects have all been marked.
+     * The subtrees are looked up and deployed under a session wide lock, so that with a parallel build a subtree is
+     * only deployed once.
+     */
+    private void deployCompletedSubtrees() {
+        List<Map<RemoteRepository, Map<Integer, List<ProducedArtifact>>>> claimed = new ArrayList<>();
+        Object lock = session.getData().computeIfAbsent(CHECKPOINT_LOCK, Object::new);
+        synchronized (lock) {
+            Subtrees subtrees = session.getData().computeIfAbsent(SUBTREES, this::createSubtrees);
+            for (Project aggregator : subtrees.markDone(project)) {
+                List<Project> subtree = subtrees.get(aggregator);
+                List<Project> toBeDeployed = subtree.stream()
+                        .filter(p -> getState(p) == State.TO_BE_DEPLOYED)
+                        .collect(Collectors.toList());
+                if (!toBeDeployed.isEmpty()) {
+                    getLog().info("All " + subtree.size() + " projects of " + aggregator.getGroupId() + ":"
+                            + aggregator.getArtifactId() + " are done, deploying them");
+                    claimed.add(getDeferredDeployments().remove(toBeDeployed));
+                    toBeDeployed.forEach(p -> session.getPluginContext(p).put(State.class.getName(), State.DEPLOYED));
+                }
+            }
         }
+        // only claiming the subtrees needs the lock: the other projects of the reactor keep building while uploading
+        claimed.forEach(this::deployAllAtOnce);
+    }
+
+    /**
+     * Computes the aggregator subtrees of the reactor: every project along with all the reactor projects it
+     * aggregates, directly or not, through its modules or subprojects.
+     */
+    private Subtrees createSubtrees() {
+        List<Project> projects = session.getProjects();
+        Map<Path, Project> projectsByBasedir = new HashMap<>();
+        for (Project p : projects) {
+            projectsByBasedir.put(p.getBasedir().toAbsolutePath().normalize(), p);
+        }
+        Subtrees subtrees = new Subtrees();
+        for (Project aggregator : projects) {
+            Set<Project> subtree = new LinkedHashSet<>();
+            Deque<Project> queue = new ArrayDeque<>(List.of(aggregator));
+            while (!queue.isEmpty()) {
+                Project current = queue.poll();
+                if (!subtree.add(current)) {
+                    continue;
+                }
+                List<String> children = new ArrayList<>(current.getModel().getModules());
+                children.addAll(current.getModel().getSubprojects());
+                for (String child : children) {
+                    Path path = current.getBasedir().resolve(child).toAbsolutePath().normalize();
+                    Project module = projectsByBasedir.get(path);
+                    if (module == null && path.getParent() != null) {
+                        // the module may point to its POM file rather than to its directory
+                        module = projectsByBasedir.get(path.getParent());
+                    }
+                    if (module != null) {
+                        queue.add(module);
+                    }
+                }
+            }
+            if (subtree.size() > 1) {
+                subtrees.add(aggregator, new ArrayList<>(subtree), this::hasDeployExecution);
+            }
+        }
+        return subtrees;
+    }
+
+    /**
+     * Whether the deployment has to wait for all projects, either because it was asked to or because the requests
+     * of all projects are needed as a whole.
+     */
+    private boolean isDeferred() {
+        return deployAtEnd || deploymentPlan != null || stagingDirectory != null || outbox != null || shardCount > 1;
     }
 
     private boolean allProjectsMarked() {
@@ -212,18 +582,24 @@ public class DeployMojo extends AbstractDeployMojo {
     }
 
     private void deployAllAtOnce() {
-        Map<RemoteRepository, Map<Integer, List<ProducedArtifact>>> flattenedRequests = new LinkedHashMap<>();
+        TransportWarmer transportWarmer = session.getData().get(TRANSPORT_WARMER);
+        if (transportWarmer != null) {
+            transportWarmer.shutdown();
+        }
+        deployAllAtOnce(session.getProjects());
+    }
+
+    private void deployAllAtOnce(Collection<Project> projects) {
         // flatten requests, grouping by remote repository and number of retries
-        for (Project reactorProject : session.getProjects()) {
-            State state = getState(reactorProject);
-            if (state == State.TO_BE_DEPLOYED) {
-                ArtifactDeployerRequest request = (ArtifactDeployerRequest)
-                        session.getPluginContext(reactorProject).get(ArtifactDeployerRequest.class.getName());
-                flattenedRequests
-                        .computeIfAbsent(request.getRepository(), r -> new LinkedHashMap<>())
-                        .computeIfAbsent(request.getRetryFailedDeploymentCount(), i -> new ArrayList<>())
-                        .addAll(request.getArtifacts());
-            }
+        deployAllAtOnce(getDeferredDeployments()
+                .remove(projects.stream()
+                        .filter(p -> getState(p) == State.TO_BE_DEPLOYED)
+                        .collect(Collectors.toList())));
+    }
+
+    private void deployAllAtOnce(Map<RemoteRepository, Map<Integer, List<ProducedArtifact>>> flattenedRequests) {
+        if (shardCount > 1) {
+            selectShard(flattenedRequests);
         }
         // Re-group all requests
         List<ArtifactDeployerRequest> requests = new ArrayList<>();
@@ -239,13 +615,357 @@ public class DeployMojo extends AbstractDeployMojo {
             }
         }
         // Deploy
-        if (!requests.isEmpty()) {
-            requests.forEach(this::deploy);
+        if (outbox != null) {
+            queue(requests);
+        } else if (stagingDirectory != null) {
+            stage(requests);
+        } else if (deploymentPlan != null) {
+            writeDeploymentPlan(requests);
+        } else if (!requests.isEmpty()) {
+            publish(requests);
         } else {
             getLog().info("No actual deploy requests");
         }
     }
 
+    /**
+     * Keeps only the artifacts of the <code>groupId:artifactId</code>s assigned to {@link #shardIndex}. The
+     * <code>groupId:artifactId</code>s are spread over the shards by total file size, largest first.
+     */
+    private void selectShard(Map<RemoteRepository, Map<Integer, List<ProducedArtifact>>> flattenedRequests) {
+        if (shardIndex < 0 || shardIndex >= shardCount) {
+            throw new MojoException("Invalid shardIndex " + shardIndex + ", it must be between 0 and "
+                    + (shardCount - 1));
+        }
+        Map<String, Long> sizeByGa = new HashMap<>();
+        flattenedRequests.values().stream()
+                .flatMap(m -> m.values().stream())
+                .flatMap(List::stream)
+                .forEach(a -> sizeByGa.merge(getGaKey(a), getSize(a), Long::sum));
+
+        List<List<String>> shards =
+                Partitioner.partition(sizeByGa.keySet(), shardCount, sizeByGa::get, ga -> ga);
+        Set<String> selected = new HashSet<>(shards.get(shardIndex));
+        getLog().info("Deploying shard " + (shardIndex + 1) + " of " + shardCount + ": " + selected.size() + " of "
+                + sizeByGa.size() + " groupId:artifactId");
+
+        for (Map<Integer, List<ProducedArtifact>> byRetries : flattenedRequests.values()) {
+            byRetries.values().forEach(artifacts -> artifacts.removeIf(a -> !selected.contains(getGaKey(a))));
+            byRetries.values().removeIf(List::isEmpty);
+        }
+        flattenedRequests.values().removeIf(Map::isEmpty);
+    }
+
+    private static String getGaKey(Artifact artifact) {
+        return artifact.getGroupId() + ":" + artifact.getArtifactId();
+    }
+
+    private long getSize(Artifact artifact) {
+        return getArtifactManager()
+                .getPath(artifact)
+                .map(path -> {
+                    try {
+                        return Files.size(path);
+                    } catch (IOException e) {
+                        return 0L;
+                    }
+                })
+                .orElse(0L);
+    }
+
+    private void writeDeploymentPlan(List<ArtifactDeployerRequest> requests) {
+        try {
+            DeploymentPlan.of(requests, getArtifactManager()).write(deploymentPlan);
+        } catch (IOException e) {
+            throw new MojoException("Unable to write deployment plan " + deploymentPlan + ": " + e.getMessage(), e);
+        }
+        getLog().info("Deployment plan with " + requests.stream().mapToInt(r -> r.getArtifacts().size()).sum()
+                + " artifacts written to " + deploymentPlan);
+    }
+
+    private void stage(List<ArtifactDeployerRequest> requests) {
+        Path planFile = stagingDirectory.resolve(DeployStagedMojo.PLAN_FILE_NAME);
+        try {
+            DeploymentPlan.of(requests, getArtifactManager())
+                    .stage(stagingDirectory, linkFiles, getLog())
+                    .write(planFile);
+        } catch (IOException e) {
+            throw new MojoException("Unable to stage artifacts in " + stagingDirectory + ": " + e.getMessage(), e);
+        }
+        getLog().info("Staged " + requests.stream().mapToInt(r -> r.getArtifacts().size()).sum()
+                + " artifacts in " + stagingDirectory);
+    }
+
+    /**
+     * Stages the requests into a new entry of the {@link #outbox}. The plan file is written last, so an entry is only
+     * picked up by the <a href="deploy-outbox-mojo.html">deploy-outbox</a> goal once it is complete.
+     */
+    private void queue(List<ArtifactDeployerRequest> requests) {
+        if (requests.isEmpty()) {
+            getLog().info("No actual deploy requests");
+            return;
+        }
+        try {
+            Files.createDirectories(outbox);
+            Path entry = Files.createTempDirectory(
+                    outbox, DeployOutboxMojo.ENTRY_FORMAT.format(LocalDateTime.now()) + "-");
+            DeploymentPlan.of(requests, getArtifactManager())
+                    .stage(entry, linkFiles, getLog())
+                    .write(entry.resolve(DeployStagedMojo.PLAN_FILE_NAME));
+            getLog().info("Queued " + requests.stream().mapToInt(r -> r.getArtifacts().size()).sum()
+                    + " artifacts in " + entry);
+        } catch (IOException e) {
+            throw new MojoException("Unable to queue artifacts in " + outbox + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Deploys the given requests, in two phases if {@link #twoPhasePublication} is enabled. The
+     * {@link #preflight pre-flight checks} are run before, and the {@link #reconcileMetadata metadata reconciliation}
+     * and the {@link #verifyDeployment verification} after, if enabled.
+     */
+    private void publish(List<ArtifactDeployerRequest> requests) {
+        if (preflight) {
+            new Preflight(session, deployThreads, preflightProbe).check(requests);
+        }
+        Set<RemoteRepository> failed =
+                twoPhasePublication ? deployInTwoPhases(requests) : deploy(requests, this::deploy);
+        List<ArtifactDeployerRequest> deployed = new ArrayList<>(requests);
+        deployed.removeIf(request -> failed.contains(request.getRepository()));
+        if (reconcileMetadata) {
+            new MetadataReconciler(session, getLog(), deployThreads, reconcileMetadataAttempts).reconcile(deployed);
+        }
+        if (verifyDeployment) {
+            new DeploymentVerifier(session, getLog(), verifyThreads, verifyTimeout * 1000).verify(deployed);
+        }
+    }
+
+    /**
+     * Uploads all artifacts of released versions but the POMs, and then deploys the POMs and the snapshot versions to
+     * the repositories which got all other artifacts. Returns the repositories whose deployment failed without failing
+     * the build.
+     */
+    private Set<RemoteRepository> deployInTwoPhases(List<ArtifactDeployerRequest> requests) {
+        List<ArtifactDeployerRequest> payloads = new ArrayList<>();
+        List<ArtifactDeployerRequest> publications = new ArrayList<>();
+        for (ArtifactDeployerRequest request : requests) {
+            List<ProducedArtifact> payloadArtifacts = new ArrayList<>();
+            List<ProducedArtifact> publicationArtifacts = new ArrayList<>();
+            for (ProducedArtifact artifact : request.getArtifacts()) {
+                if (session.isVersionSnapshot(artifact.getVersion().toString())
+                        || ("pom".equals(artifact.getExtension()) && artifact.getClassifier().isEmpty())) {
+                    publicationArtifacts.add(artifact);
+                } else {
+                    payloadArtifacts.add(artifact);
+                }
+            }
+            if (!payloadArtifacts.isEmpty()) {
+                payloads.add(withArtifacts(request, payloadArtifacts));
+            }
+            if (!publicationArtifacts.isEmpty()) {
+                publications.add(withArtifacts(request, publicationArtifacts));
+            }
+        }
+
+        getLog().info("Publication phase 1: uploading "
+                + payloads.stream().mapToInt(r -> r.getArtifacts().size()).sum() + " artifacts");
+        Set<RemoteRepository> failed = new HashSet<>(deploy(payloads, this::upload));
+        publications.removeIf(request -> failed.contains(request.getRepository()));
+        getLog().info("Publication phase 2: deploying "
+                + publications.stream().mapToInt(r -> r.getArtifacts().size()).sum() + " POMs and snapshots");
+        failed.addAll(deploy(publications, this::deploy));
+        return failed;
+    }
+
+    /**
+     * Uploads the artifacts of the given request along with their checksums, but without the repository metadata the
+     * artifact deployer would update, so that their versions are not visible yet.
+     */
+    private void upload(ArtifactDeployerRequest request) {
+        RemoteRepository repository = request.getRepository();
+        getLog().info("Uploading artifacts " + request.getArtifacts().toString() + " to repository " + repository);
+        List<String> algorithms = Checksums.algorithms(session, repository);
+        try (Transport transport = session.getService(TransportProvider.class).transport(session, repository)) {
+            for (ProducedArtifact artifact : request.getArtifacts()) {
+                Path file = getArtifactManager()
+                        .getPath(artifact)
+                        .orElseThrow(() -> new MojoException("No file for artifact " + artifact));
+                String path = artifact.getGroupId().replace('.', '/') + "/" + artifact.getArtifactId() + "/"
+                        + artifact.getVersion() + "/" + artifact.getArtifactId() + "-" + artifact.getVersion()
+                        + (artifact.getClassifier().isEmpty() ? "" : "-" + artifact.getClassifier()) + "."
+                        + artifact.getExtension();
+                for (int attempt = 1; ; attempt++) {
+                    try {
+                        transport.put(file, URI.create(path));
+                        if (!Checksums.isOmitted(session, repository, artifact.getExtension())) {
+                            for (String algorithm : algorithms) {
+                                transport.putString(
+                                        Checksums.calculate(file, algorithm),
+                                        URI.create(path + "." + Checksums.extension(algorithm)));
+                            }
+                        }
+                        break;
+                    } catch (IOException | RuntimeException e) {
+                        if (attempt >= request.getRetryFailedDeploymentCount()) {
+                            throw e;
+                        }
+                        getLog().warn("Uploading " + artifact + " failed, retrying: " + e.getMessage());
+                    }
+                }
+            }
+        } catch (MojoException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new MojoException(e.getMessage(), e);
+        }
+    }
+
+    private ArtifactDeployerRequest withArtifacts(ArtifactDeployerRequest request, List<ProducedArtifact> artifacts) {
+        return ArtifactDeployerRequest.builder()
+                .session(session)
+                .repository(request.getRepository())
+                .retryFailedDeploymentCount(request.getRetryFailedDeploymentCount())
+                .artifacts(artifacts)
+                .build();
+    }
+
+    /**
+     * Deploys the given requests with the given action, running the requests of distinct repositories concurrently.
+     * With more than one {@link #deployLanes lane}, the requests of each repository are further spread over parallel
+     * lanes.
+     *
+     * @return the repositories whose deployment failed without failing the build, see
+     *         {@link #requireAllDeploymentRepositories}
+     */
+    private Set<RemoteRepository> deploy(
+            List<ArtifactDeployerRequest> requests, Consumer<ArtifactDeployerRequest> action) {
+        if (requests.isEmpty()) {
+            return Set.of();
+        }
+        List<UploadScheduler.Lane> lanes;
+        if (deployLanes > 1) {
+            lanes = UploadScheduler.schedule(session, requests, deployLanes, this::getSize);
+        } else {
+            Map<RemoteRepository, List<ArtifactDeployerRequest>> requestsByRepository = new LinkedHashMap<>();
+            for (ArtifactDeployerRequest request : requests) {
+                requestsByRepository
+                        .computeIfAbsent(request.getRepository(), r -> new ArrayList<>())
+                        .add(request);
+            }
+            lanes = new ArrayList<>();
+            requestsByRepository.forEach((repository, repositoryRequests) -> lanes.add(new UploadScheduler.Lane(
+                    repository,
+                    repositoryRequests,
+                    repositoryRequests.stream()
+                            .flatMap(r -> r.getArtifacts().stream())
+                            .mapToLong(this::getSize)
+                            .sum())));
+        }
+        if (lanes.size() == 1 && deployDeadline <= 0) {
+            lanes.get(0).requests().forEach(action);
+            return Set.of();
+        }
+
+        DeadlineMonitor monitor =
+                new DeadlineMonitor(lanes.stream().mapToLong(UploadScheduler.Lane::size).sum());
+        Map<UploadScheduler.Lane, Future<?>> results = new LinkedHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(deployThreads, lanes.size())));
+        try {
+            for (UploadScheduler.Lane lane : lanes) {
+                results.put(lane, executor.submit(() -> {
+                    for (ArtifactDeployerRequest request : lane.requests()) {
+                        action.accept(request);
+                        monitor.completed(request.getArtifacts().stream()
+                                .mapToLong(this::getSize)
+                                .sum());
+                    }
+                }));
+            }
+
+            Map<RemoteRepository, Throwable> outcomes = new LinkedHashMap<>();
+            for (Map.Entry<UploadScheduler.Lane, Future<?>> result : results.entrySet()) {
+                RemoteRepository repository = result.getKey().repository();
+                try {
+                    result.getValue().get();
+                    outcomes.putIfAbsent(repository, null);
+                } catch (ExecutionException e) {
+                    if (outcomes.get(repository) == null) {
+                        outcomes.put(repository, e.getCause());
+                    }
+                }
+            }
+
+            List<String> additionalIds = getAdditionalDeploymentRepositories().stream()
+                    .map(RemoteRepository::getId)
+                    .toList();
+            MojoException failure = null;
+            Set<RemoteRepository> tolerated = new HashSet<>();
+            for (Map.Entry<RemoteRepository, Throwable> result : outcomes.entrySet()) {
+                RemoteRepository repository = result.getKey();
+                Throwable cause = result.getValue();
+                if (cause == null) {
+                    getLog().info("Deployment to repository " + repository.getId() + ": SUCCESS");
+                    continue;
+                }
+                String message =
+                        "Deployment to repository " + repository.getId() + ": FAILED (" + cause.getMessage() + ")";
+                if (requireAllDeploymentRepositories || !additionalIds.contains(repository.getId())) {
+                    getLog().error(message);
+                    if (failure == null) {
+                        failure = cause instanceof MojoException mojoException
+                                ? mojoException
+                                : new MojoException(cause.getMessage(), cause);
+                    }
+                } else {
+                    getLog().warn(message);
+                    tolerated.add(repository);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return tolerated;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoException("Interrupted while deploying artifacts", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Projects the end of the deployment from the throughput observed so far, and warns once if it falls after the
+     * {@link #deployDeadline}.
+     */
+    private final class DeadlineMonitor {
+        private final long totalBytes;
+
+        private final long start = System.nanoTime();
+
+        private long completedBytes;
+
+        private boolean warned;
+
+        DeadlineMonitor(long totalBytes) {
+            this.totalBytes = totalBytes;
+        }
+
+        synchronized void completed(long bytes) {
+            completedBytes += bytes;
+            if (deployDeadline <= 0 || warned || completedBytes <= 0 || completedBytes >= totalBytes) {
+                return;
+            }
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            long projectedMillis = (long) ((double) elapsedMillis * totalBytes / completedBytes);
+            if (projectedMillis > deployDeadline * 1000L) {
+                warned = true;
+                getLog().warn("The deployment is projected to take " + projectedMillis / 1000 + " s, which exceeds"
+                        + " the deadline of " + deployDeadline + " s (" + completedBytes + " of " + totalBytes
+                        + " bytes uploaded after " + elapsedMillis / 1000 + " s)");
+            }
+        }
+    }
+
     private void deploy(ArtifactDeployerRequest request) {
         try {
             getLog().info("Deploying artifacts " + request.getArtifacts().toString() + " to repository "
@@ -258,7 +978,25 @@ public class DeployMojo extends AbstractDeployMojo {
         }
     }
 
-    private ArtifactDeployerRequest createDeployerRequest() {
+    private List<ArtifactDeployerRequest> createDeployerRequests() {
+        List<ArtifactDeployerRequest> requests = new ArrayList<>();
+        getArtifactsByRepository().forEach((repository, artifacts) -> requests.add(ArtifactDeployerRequest.builder()
+                .session(session)
+                .repository(repository)
+                .artifacts(artifacts)
+                .retryFailedDeploymentCount(getRetryCount())
+                .build()));
+        return requests;
+    }
+
+    private int getRetryCount() {
+        return Math.max(1, Math.min(10, getRetryFailedDeploymentCount()));
+    }
+
+    /**
+     * Returns the artifacts of the project to deploy, by repository.
+     */
+    private Map<RemoteRepository, List<ProducedArtifact>> getArtifactsByRepository() {
         ProjectManager projectManager = getProjectManager();
         Collection<ProducedArtifact> deployables = projectManager.getAllArtifacts(project);
         Collection<ProducedArtifact> attachedArtifacts = projectManager.getAttachedArtifacts(project);
@@ -295,14 +1033,64 @@ public class DeployMojo extends AbstractDeployMojo {
             }
         }
 
-        ArtifactDeployerRequest request = ArtifactDeployerRequest.builder()
-                .session(session)
-                .repository(getDeploymentRepository(session.isVersionSnapshot(project.getVersion())))
-                .artifacts(deployables)
-                .retryFailedDeploymentCount(Math.max(1, Math.min(10, getRetryFailedDeploymentCount())))
-                .build();
+        Map<RemoteRepository, List<ProducedArtifact>> artifactsByRepository =
+                route(deployables, getDeploymentRepository(session.isVersionSnapshot(project.getVersion())));
+        for (RemoteRepository repository : getAdditionalDeploymentRepositories()) {
+            if (artifactsByRepository.keySet().stream()
+                    .anyMatch(r -> r.getId().equals(repository.getId())
+                            && r.getUrl().equals(repository.getUrl()))) {
+                throw new MojoException("The additional deployment repository " + repository.getId() + " ("
+                        + repository.getUrl() + ") is already a deployment repository of the project");
+            }
+            artifactsByRepository.put(repository, new ArrayList<>(deployables));
+        }
+        return artifactsByRepository;
+    }
+
+    /**
+     * Assigns each deployable to the repository of the first matching {@link #routes route}, or to the given
+     * deployment repository if no route matches.
+     */
+    private Map<RemoteRepository, List<ProducedArtifact>> route(
+            Collection<ProducedArtifact> deployables, RemoteRepository deploymentRepository) throws MojoException {
+        Map<RemoteRepository, List<ProducedArtifact>> result = new LinkedHashMap<>();
+        result.put(deploymentRepository, new ArrayList<>());
+        if (routes == null || routes.isEmpty()) {
+            result.get(deploymentRepository).addAll(deployables);
+            return result;
+        }
+
+        Map<String, RemoteRepository> routeRepositories = new HashMap<>();
+        for (ProducedArtifact deployable : deployables) {
+            long size = getSize(deployable);
+            RemoteRepository repository = deploymentRepository;
+            for (DeploymentRoute route : routes) {
+                if (route.matches(deployable.getClassifier(), deployable.getExtension(), size)) {
+                    if (route.getRepository() == null) {
+                        throw new MojoException("No repository specified for " + route);
+                    }
+                    repository = routeRepositories.computeIfAbsent(
+                            route.getRepository(), this::createDeploymentArtifactRepository);
+                    getLog().debug("Routing " + deployable + " to repository " + repository.getId());
+                    break;
+                }
+            }
+            result.computeIfAbsent(repository, r -> new ArrayList<>()).add(deployable);
+        }
+        result.values().removeIf(List::isEmpty);
+        return result;
+    }
 
-        return request;
+    private List<RemoteRepository> getAdditionalDeploymentRepositories() throws MojoException {
+        List<RemoteRepository> repositories = new ArrayList<>();
+        if (additionalDeploymentRepositories != null) {
+            for (String repository : additionalDeploymentRepositories.split(",")) {
+                if (!repository.isBlank()) {
+                    repositories.add(createDeploymentArtifactRepository(repository.trim()));
+                }
+            }
+        }
+        return repositories;
     }
 
     /**
@@ -333,7 +1121,7 @@ public class DeployMojo extends AbstractDeployMojo {
                 if ("default".equals(layout)) {
                     getLog().warn("Using legacy syntax for alternative repository. " + "Use \"" + id + "::" + url
                             + "\" instead.");
-                    repo = createDeploymentArtifactRepository(id, url);
+                    repo = createDeploymentArtifactRepository(id, url, isSnapshot);
                 } else {
                     throw new MojoException(
                             altDeploymentRepo,
@@ -342,19 +1130,9 @@ public class DeployMojo extends AbstractDeployMojo {
                                     + "\" instead, and only default layout is supported.");
                 }
             } else {
-                matcher = ALT_REPO_SYNTAX_PATTERN.matcher(altDeploymentRepo);
-
-                if (!matcher.matches()) {
-                    throw new MojoException(
-                            altDeploymentRepo,
-                            "Invalid syntax for repository.",
-                            "Invalid syntax for alternative repository. Use \"id::url\".");
-                } else {
-                    String id = matcher.group(1).trim();
-                    String url = matcher.group(2).trim();
-
-                    repo = createDeploymentArtifactRepository(id, url);
-                }
+                matcher = matchRepository(altDeploymentRepo, "alternative repository");
+                repo = createDeploymentArtifactRepository(
+                        matcher.group(1).trim(), matcher.group(2).trim(), isSnapshot);
             }
         }
 
@@ -365,11 +1143,19 @@ public class DeployMojo extends AbstractDeployMojo {
                         && dm.getSnapshotRepository() != null
                         && isNotEmpty(dm.getSnapshotRepository().getId())
                         && isNotEmpty(dm.getSnapshotRepository().getUrl())) {
-                    repo = session.createRemoteRepository(dm.getSnapshotRepository());
+                    repo = getCachedRepository(
+                            dm.getSnapshotRepository().getId(),
+                            dm.getSnapshotRepository().getUrl(),
+                            true,
+                            () -> session.createRemoteRepository(dm.getSnapshotRepository()));
                 } else if (dm.getRepository() != null
                         && isNotEmpty(dm.getRepository().getId())
                         && isNotEmpty(dm.getRepository().getUrl())) {
-                    repo = session.createRemoteRepository(dm.getRepository());
+                    repo = getCachedRepository(
+                            dm.getRepository().getId(),
+                            dm.getRepository().getUrl(),
+                            false,
+                            () -> session.createRemoteRepository(dm.getRepository()));
                 }
             }
         }
@@ -403,4 +1189,49 @@ public class DeployMojo extends AbstractDeployMojo {
     private ProjectManager getProjectManager() {
         return session.getService(ProjectManager.class);
     }
+
+    /**
+     * The aggregator subtrees of the reactor, each with the number of its projects with a deploy execution not done
+     * yet, so that finding the subtrees completed by a project does not require to look at all the others.
+     */
+    private static final class Subtrees {
+        private final Map<Project, List<Project>> subtrees = new HashMap<>();
+
+        private final Map<Project, List<Project>> aggregatorsByProject = new HashMap<>();
+
+        private final Map<Project, Integer> remaining = new HashMap<>();
+
+        private final Set<Project> counted = new HashSet<>();
+
+        private final Set<Project> done = new HashSet<>();
+
+        void add(Project aggregator, List<Project> subtree, Predicate<Project> counts) {
+            subtrees.put(aggregator, subtree);
+            int count = 0;
+            for (Project p : subtree) {
+                aggregatorsByProject.computeIfAbsent(p, k -> new ArrayList<>()).add(aggregator);
+                if (counts.test(p)) {
+                    counted.add(p);
+                    count++;
+                }
+            }
+            remaining.put(aggregator, count);
+        }
+
+        List<Project> get(Project aggregator) {
+            return subtrees.get(aggregator);
+        }
+
+        /**
+         * Marks the given project as done and returns the aggregators, outermost first, of the subtrees of the project
+         * which are complete.
+         */
+        List<Project> markDone(Project project) {
+            List<Project> aggregators = aggregatorsByProject.getOrDefault(project, List.of());
+            if (done.add(project) && counted.contains(project)) {
+                aggregators.forEach(a -> remaining.merge(a, -1, Integer::sum));
+            }
+            return aggregators.stream().filter(a -> remaining.get(a) == 0).collect(Collectors.toList());
+        }
+    }
 }
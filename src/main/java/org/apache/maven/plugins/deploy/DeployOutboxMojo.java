@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.deploy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.maven.api.plugin.MojoException;
+import org.apache.maven.api.plugin.annotations.Mojo;
+import org.apache.maven.api.plugin.annotations.Parameter;
+
+/**
+ * Flushes the outbox filled by the <a href="deploy-mojo.html">deploy</a> goal using its <code>outbox</code> parameter,
+ * e.g. while Maven was offline. The queued entries are merged and deployed as a single bulk deployment: an artifact
+ * queued several times is only deployed once, using its most recently queued copy. Flushed entries are removed from
+ * the outbox, and a failed flush can be resumed without deploying the same artifacts again.
+ *
+ * @since 4.0.0-beta-3
+ */
+@Mojo(name = "deploy-outbox", projectRequired = false)
+public class DeployOutboxMojo extends AbstractDeployPlanMojo {
+    /**
+     * The format of the outbox entry names, so that sorting them by name sorts them by queuing time.
+     */
+    static final DateTimeFormatter ENTRY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private static final String DONE_FILE_NAME = "flush.done";
+
+    /**
+     * The outbox to flush.
+     */
+    @Parameter(property = "maven.deploy.outbox", required = true)
+    private Path outbox;
+
+    /**
+     * Set this to 'true' to bypass the outbox flush.
+     */
+    @Parameter(property = "maven.deploy.outbox.skip", defaultValue = "false")
+    private boolean skip;
+
+    public void execute() throws MojoException {
+        if (skip) {
+            getLog().info("Skipping outbox flush");
+            return;
+        }
+
+        failIfOffline();
+
+        List<Path> entries = findEntries();
+        if (entries.isEmpty()) {
+            getLog().info("The outbox " + outbox + " is empty");
+            return;
+        }
+
+        List<DeploymentPlan> plans = new ArrayList<>();
+        for (Path entry : entries) {
+            Path planFile = entry.resolve(DeployStagedMojo.PLAN_FILE_NAME);
+            try {
+                plans.add(DeploymentPlan.read(planFile));
+            } catch (IOException e) {
+                throw new MojoException("Unable to read deployment plan " + planFile + ": " + e.getMessage(), e);
+            }
+        }
+        getLog().info("Flushing " + entries.size() + " entries of the outbox " + outbox);
+
+        Path doneFile = outbox.resolve(DONE_FILE_NAME);
+        Set<String> done = readDoneFile(doneFile);
+        if (!done.isEmpty()) {
+            done = withoutRequeuedUnits(done, doneFile, entries, plans);
+        }
+        executePlan(merge(plans, true), done, doneFile);
+
+        for (Path entry : entries) {
+            deleteRecursively(entry, "flushed outbox entry");
+        }
+    }
+
+    /**
+     * Returns the entries of the outbox, oldest first. Entries without a plan file are still being queued and are left
+     * alone.
+     */
+    private List<Path> findEntries() throws MojoException {
+        if (!Files.isDirectory(outbox)) {
+            return List.of();
+        }
+        try (Stream<Path> stream = Files.list(outbox)) {
+            return stream.filter(p -> Files.isRegularFile(p.resolve(DeployStagedMojo.PLAN_FILE_NAME)))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new MojoException("Unable to read outbox " + outbox + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Removes from the units completed by a previous flush those queued again since then, so that their new content is
+     * deployed as well.
+     */
+    private Set<String> withoutRequeuedUnits(
+            Set<String> done, Path doneFile, List<Path> entries, List<DeploymentPlan> plans) throws MojoException {
+        Set<String> result = new HashSet<>(done);
+        try {
+            FileTime flushTime = Files.getLastModifiedTime(doneFile);
+            for (int i = 0; i < entries.size(); i++) {
+                Path planFile = entries.get(i).resolve(DeployStagedMojo.PLAN_FILE_NAME);
+                if (Files.getLastModifiedTime(planFile).compareTo(flushTime) > 0) {
+                    for (DeploymentPlan.Target target : plans.get(i).getTargets()) {
+                        for (DeploymentPlan.Entry entry : target.entries()) {
+                            result.remove(target.unitKey(entry.groupId() + ":" + entry.artifactId()));
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new MojoException("Unable to read outbox " + outbox + ": " + e.getMessage(), e);
+        }
+        return result;
+    }
+}
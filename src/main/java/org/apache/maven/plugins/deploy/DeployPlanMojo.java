@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.deploy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import org.apache.maven.api.plugin.MojoException;
+import org.apache.maven.api.plugin.annotations.Mojo;
+import org.apache.maven.api.plugin.annotations.Parameter;
+
+/**
+ * Executes a deployment plan previously written by the <a href="deploy-mojo.html">deploy</a> goal using its
+ * <code>deploymentPlan</code> parameter. The artifacts are deployed per repository and <code>groupId:artifactId</code>,
+ * with the different units running concurrently. Completed units are recorded next to the plan, so a failed execution
+ * can be resumed without deploying the same artifacts again.
+ *
+ * @since 4.0.0-beta-3
+ */
+@Mojo(name = "deploy-plan", projectRequired = false)
+public class DeployPlanMojo extends AbstractDeployPlanMojo {
+    /**
+     * The deployment plan to execute.
+     */
+    @Parameter(property = "maven.deploy.plan", required = true)
+    Path plan;
+
+    /**
+     * Whether the units recorded as completed by a previous execution of the same plan are skipped. The record is
+     * stored in a <code>.done</code> file next to the plan and removed once the whole plan has been deployed.
+     */
+    @Parameter(property = "maven.deploy.plan.resume", defaultValue = "true")
+    private boolean resume;
+
+    /**
+     * Set this to 'true' to bypass the plan execution.
+     */
+    @Parameter(property = "maven.deploy.plan.skip", defaultValue = "false")
+    private boolean skip;
+
+    public void execute() throws MojoException {
+        if (skip) {
+            getLog().info("Skipping deployment plan execution");
+            return;
+        }
+
+        if (!Files.isRegularFile(plan)) {
+            throw new MojoException("The specified deployment plan '" + plan + "' does not exist");
+        }
+
+        failIfOffline();
+
+        DeploymentPlan deploymentPlan;
+        try {
+            deploymentPlan = DeploymentPlan.read(plan);
+        } catch (IOException e) {
+            throw new MojoException("Unable to read deployment plan " + plan + ": " + e.getMessage(), e);
+        }
+
+        Path doneFile = plan.resolveSibling(plan.getFileName() + ".done");
+        executePlan(deploymentPlan, resume ? readDoneFile(doneFile) : Set.of(), doneFile);
+    }
+}
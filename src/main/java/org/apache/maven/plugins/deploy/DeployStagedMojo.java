@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.deploy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.apache.maven.api.plugin.MojoException;
+import org.apache.maven.api.plugin.annotations.Mojo;
+import org.apache.maven.api.plugin.annotations.Parameter;
+
+/**
+ * Deploys the artifacts staged by several builds at once, e.g. by the shards of a CI build, each having run the
+ * <a href="deploy-mojo.html">deploy</a> goal with its <code>stagingDirectory</code> parameter. The deployment plans of
+ * all staging directories are merged first, failing if the same artifact has been staged with different content, and
+ * the merged plan is then deployed as a single bulk deployment.
+ *
+ * @since 4.0.0-beta-3
+ */
+@Mojo(name = "deploy-staged", projectRequired = false)
+public class DeployStagedMojo extends AbstractDeployPlanMojo {
+    static final String PLAN_FILE_NAME = "deploy.plan";
+
+    /**
+     * A comma separated list of staging directories. Each directory is searched for <code>deploy.plan</code> files up
+     * to two levels deep, so the parent directory of all the shard directories can be given as well.
+     */
+    @Parameter(property = "stagingDirectories", required = true)
+    private String stagingDirectories;
+
+    /**
+     * A file recording the completed units, so a failed deployment can be resumed without deploying the same
+     * artifacts again. The file is removed once all staged artifacts have been deployed.
+     */
+    @Parameter(property = "maven.deploy.staged.resumeFile")
+    private Path resumeFile;
+
+    /**
+     * Set this to 'true' to bypass the deployment of the staged artifacts.
+     */
+    @Parameter(property = "maven.deploy.staged.skip", defaultValue = "false")
+    private boolean skip;
+
+    public void execute() throws MojoException {
+        if (skip) {
+            getLog().info("Skipping staged artifacts deployment");
+            return;
+        }
+
+        failIfOffline();
+
+        List<Path> planFiles = findPlanFiles();
+        if (planFiles.isEmpty()) {
+            throw new MojoException("No " + PLAN_FILE_NAME + " found in " + stagingDirectories);
+        }
+
+        List<DeploymentPlan> plans = new ArrayList<>();
+        for (Path planFile : planFiles) {
+            try {
+                plans.add(DeploymentPlan.read(planFile));
+            } catch (IOException e) {
+                throw new MojoException("Unable to read deployment plan " + planFile + ": " + e.getMessage(), e);
+            }
+        }
+        getLog().info("Merging " + plans.size() + " staged deployment plans");
+
+        DeploymentPlan merged = merge(plans, false);
+        Set<String> done = readDoneFile(resumeFile);
+        executePlan(merged, done, resumeFile);
+    }
+
+    private List<Path> findPlanFiles() throws MojoException {
+        List<Path> planFiles = new ArrayList<>();
+        for (String directory : stagingDirectories.split(",")) {
+            if (directory.isBlank()) {
+                continue;
+            }
+            Path path = Paths.get(directory.trim());
+            if (!Files.isDirectory(path)) {
+                throw new MojoException("The staging directory '" + path + "' does not exist");
+            }
+            try (Stream<Path> stream = Files.walk(path, 3)) {
+                stream.filter(p -> p.getFileName().toString().equals(PLAN_FILE_NAME) && Files.isRegularFile(p))
+                        .sorted()
+                        .forEach(planFiles::add);
+            } catch (IOException e) {
+                throw new MojoException("Unable to read staging directory " + path + ": " + e.getMessage(), e);
+            }
+        }
+        return planFiles;
+    }
+}
@@ -0,0 +1,315 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.deploy;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.maven.api.ProducedArtifact;
+import org.apache.maven.api.plugin.Log;
+import org.apache.maven.api.services.ArtifactDeployerRequest;
+import org.apache.maven.api.services.ArtifactManager;
+
+/**
+ * A deployment plan, i.e. the deploy requests computed by a build, saved to a file so they can be executed later,
+ * possibly on another machine. The plan is a tab separated text file: each <code>repository</code> line is followed
+ * by the <code>artifact</code> lines to deploy to that repository.
+ * <pre>
+ * repository  id  url  retryFailedDeploymentCount
+ * artifact  groupId  artifactId  version  classifier  extension  size  sha256  path
+ * </pre>
+ * Paths located below the directory of the plan are stored relative to it, so the plan and its files can be moved
+ * together.
+ */
+final class DeploymentPlan {
+    static final String CHECKSUM_ALGORITHM = "SHA-256";
+
+    private static final String HEADER = "# Maven deployment plan";
+
+    private static final String REPOSITORY = "repository";
+
+    private static final String ARTIFACT = "artifact";
+
+    private final List<Target> targets;
+
+    DeploymentPlan(List<Target> targets) {
+        this.targets = targets;
+    }
+
+    List<Target> getTargets() {
+        return targets;
+    }
+
+    /**
+     * The artifacts to deploy to one repository.
+     */
+    record Target(String repositoryId, String url, int retryFailedDeploymentCount, List<Entry> entries) {
+        /**
+         * Returns the key of the repository, shared by the targets of all plans deploying to it.
+         */
+        String key() {
+            return repositoryId + "\t" + url;
+        }
+
+        /**
+         * Returns the key of the unit of the given <code>groupId:artifactId</code>, the artifacts of which are deployed
+         * together to the repository.
+         */
+        String unitKey(String ga) {
+            return key() + "\t" + ga;
+        }
+    }
+
+    /**
+     * One artifact of the plan.
+     */
+    record Entry(
+            String groupId,
+            String artifactId,
+            String version,
+            String classifier,
+            String extension,
+            long size,
+            String checksum,
+            Path path) {
+        String key() {
+            return groupId + ":" + artifactId + ":" + extension + (classifier.isEmpty() ? "" : ":" + classifier) + ":"
+                    + version;
+        }
+
+        /**
+         * Returns the path of the artifact in the Maven 2 repository layout.
+         */
+        String layoutPath() {
+            return groupId.replace('.', '/') + "/" + artifactId + "/" + version + "/" + artifactId + "-" + version
+                    + (classifier.isEmpty() ? "" : "-" + classifier) + "." + extension;
+        }
+    }
+
+    /**
+     * Creates the plan of the given deploy requests, computing the size and checksum of every artifact file.
+     */
+    static DeploymentPlan of(List<ArtifactDeployerRequest> requests, ArtifactManager artifactManager)
+            throws IOException {
+        List<Target> targets = new ArrayList<>();
+        try {
+            for (ArtifactDeployerRequest request : requests) {
+                List<Entry> entries = request.getArtifacts().parallelStream()
+                        .map(artifact -> toEntry(artifact, artifactManager))
+                        .collect(Collectors.toList());
+                targets.add(new Target(
+                        request.getRepository().getId(),
+                        request.getRepository().getUrl(),
+                        request.getRetryFailedDeploymentCount(),
+                        entries));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return new DeploymentPlan(targets);
+    }
+
+    private static Entry toEntry(ProducedArtifact artifact, ArtifactManager artifactManager) {
+        Path path = artifactManager
+                .getPath(artifact)
+                .orElseThrow(() -> new UncheckedIOException(
+                        new IOException("No file assigned to artifact " + artifact)));
+        try {
+            return new Entry(
+                    artifact.getGroupId(),
+                    artifact.getArtifactId(),
+                    artifact.getVersion().toString(),
+                    artifact.getClassifier(),
+                    artifact.getExtension(),
+                    Files.size(path),
+                    Checksums.calculate(path, CHECKSUM_ALGORITHM),
+                    path.toAbsolutePath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Copies all artifact files of this plan into the given directory, using the Maven 2 repository layout, and
+     * returns the plan pointing to the copies. Files shared by several targets are copied only once.
+     */
+    DeploymentPlan stage(Path directory) throws IOException {
+        return stage(directory, false, null);
+    }
+
+    /**
+     * Same as {@link #stage(Path)}, but the files are hard linked rather than copied if {@code link} is set and the
+     * directory is on the same file system as the artifact files.
+     *
+     * @param log the log reporting the files copied because they could not be linked, only used if {@code link} is set
+     */
+    DeploymentPlan stage(Path directory, boolean link, Log log) throws IOException {
+        List<Target> stagedTargets = new ArrayList<>();
+        Set<Path> copied = new HashSet<>();
+        for (Target target : targets) {
+            List<Entry> stagedEntries = new ArrayList<>();
+            for (Entry entry : target.entries()) {
+                Path staged = directory.resolve(entry.layoutPath());
+                if (copied.add(staged) && !staged.equals(entry.path())) {
+                    Files.createDirectories(staged.getParent());
+                    transfer(entry.path(), staged, link, log);
+                }
+                stagedEntries.add(new Entry(
+                        entry.groupId(),
+                        entry.artifactId(),
+                        entry.version(),
+                        entry.classifier(),
+                        entry.extension(),
+                        entry.size(),
+                        entry.checksum(),
+                        staged));
+            }
+            stagedTargets.add(new Target(
+                    target.repositoryId(), target.url(), target.retryFailedDeploymentCount(), stagedEntries));
+        }
+        return new DeploymentPlan(stagedTargets);
+    }
+
+    /**
+     * Links or copies the source file to the target file. Linking falls back to copying when the files are not on the
+     * same file store or the file system does not support links, and copying uses {@link FileChannel#transferTo} so
+     * the bytes do not go through the heap.
+     */
+    private static void transfer(Path source, Path target, boolean link, Log log) throws IOException {
+        Files.deleteIfExists(target);
+        if (link) {
+            if (!Files.getFileStore(source).equals(Files.getFileStore(target.getParent()))) {
+                log.debug("Copying " + source + " to " + target + ", which is on another file store");
+            } else {
+                try {
+                    Files.createLink(target, source);
+                    return;
+                } catch (UnsupportedOperationException | IOException e) {
+                    log.debug("Copying " + source + " to " + target + ", as it cannot be linked: " + e.getMessage());
+                }
+            }
+        }
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+                FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        }
+    }
+
+    /**
+     * Writes this plan to the given file.
+     */
+    void write(Path file) throws IOException {
+        Path baseDir = file.toAbsolutePath().getParent();
+        Files.createDirectories(baseDir);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Target target : targets) {
+                writer.write(String.join(
+                        "\t",
+                        REPOSITORY,
+                        target.repositoryId(),
+                        target.url(),
+                        Integer.toString(target.retryFailedDeploymentCount())));
+                writer.newLine();
+                for (Entry entry : target.entries()) {
+                    Path path = entry.path().startsWith(baseDir) ? baseDir.relativize(entry.path()) : entry.path();
+                    writer.write(String.join(
+                            "\t",
+                            ARTIFACT,
+                            entry.groupId(),
+                            entry.artifactId(),
+                            entry.version(),
+                            entry.classifier(),
+                            entry.extension(),
+                            Long.toString(entry.size()),
+                            entry.checksum(),
+                            path.toString().replace('\\', '/')));
+                    writer.newLine();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the plan stored in the given file, resolving relative artifact paths against the directory of the file.
+     */
+    static DeploymentPlan read(Path file) throws IOException {
+        Path baseDir = file.toAbsolutePath().getParent();
+        List<Target> targets = new ArrayList<>();
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] tokens = line.split("\t", -1);
+            if (REPOSITORY.equals(tokens[0]) && tokens.length == 4) {
+                targets.add(new Target(tokens[1], tokens[2], parseInt(tokens[3], file, i), new ArrayList<>()));
+            } else if (ARTIFACT.equals(tokens[0]) && tokens.length == 9 && !targets.isEmpty()) {
+                targets.get(targets.size() - 1)
+                        .entries()
+                        .add(new Entry(
+                                tokens[1],
+                                tokens[2],
+                                tokens[3],
+                                tokens[4],
+                                tokens[5],
+                                parseLong(tokens[6], file, i),
+                                tokens[7],
+                                baseDir.resolve(Paths.get(tokens[8]))));
+            } else {
+                throw invalidLine(file, i);
+            }
+        }
+        return new DeploymentPlan(targets);
+    }
+
+    private static int parseInt(String value, Path file, int line) throws IOException {
+        return (int) parseLong(value, file, line);
+    }
+
+    private static long parseLong(String value, Path file, int line) throws IOException {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw invalidLine(file, line);
+        }
+    }
+
+    private static IOException invalidLine(Path file, int line) {
+        return new IOException("Invalid line " + (line + 1) + " in deployment plan " + file);
+    }
+}
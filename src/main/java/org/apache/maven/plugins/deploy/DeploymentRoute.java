@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.deploy;
+
+/**
+ * A rule sending the matching artifacts to a dedicated repository instead of the deployment repository of the
+ * project. All the criteria set on a route must match for the route to apply; criteria left unset match any artifact.
+ *
+ * @since 4.0.0-beta-3
+ */
+public class DeploymentRoute {
+    /**
+     * The classifier of the artifacts to route. Use an empty value to match artifacts without classifier.
+     */
+    private String classifier;
+
+    /**
+     * The extension of the artifacts to route, e.g. <code>tar.gz</code>.
+     */
+    private String extension;
+
+    /**
+     * The minimum size, in bytes, of the artifacts to route.
+     */
+    private long minSize = -1;
+
+    /**
+     * The repository the matching artifacts are deployed to, using the <code>id::url</code> syntax.
+     */
+    private String repository;
+
+    public String getClassifier() {
+        return classifier;
+    }
+
+    public void setClassifier(String classifier) {
+        this.classifier = classifier;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public void setExtension(String extension) {
+        this.extension = extension;
+    }
+
+    public long getMinSize() {
+        return minSize;
+    }
+
+    public void setMinSize(long minSize) {
+        this.minSize = minSize;
+    }
+
+    public String getRepository() {
+        return repository;
+    }
+
+    public void setRepository(String repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Checks whether an artifact with the given coordinates and file size is matched by this route.
+     */
+    boolean matches(String artifactClassifier, String artifactExtension, long size) {
+        return (classifier == null || classifier.equals(artifactClassifier))
+                && (extension == null || extension.equals(artifactExtension))
+                && (minSize < 0 || size >= minSize);
+    }
+
+    @Override
+    public String toString() {
+        return "DeploymentRoute{classifier=" + classifier + ", extension=" + extension + ", minSize=" + minSize
+                + ", repository=" + repository + "}";
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.deploy;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.apache.maven.api.Artifact;
+import org.apache.maven.api.ProducedArtifact;
+import org.apache.maven.api.RemoteRepository;
+import org.apache.maven.api.Session;
+import org.apache.maven.api.plugin.Log;
+import org.apache.maven.api.plugin.MojoException;
+import org.apache.maven.api.services.ArtifactDeployerRequest;
+import org.apache.maven.api.services.ArtifactManager;
+import org.apache.maven.api.services.Transport;
+import org.apache.maven.api.services.TransportProvider;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Verifies deployed artifacts by fetching the checksum published next to each of them, SHA-1 unless the repository
+ * is configured not to publish it, and comparing it with the checksum of the local file. Only the checksum files are
+ * downloaded, never the artifacts themselves. Artifacts which are not visible yet are polled until they are, or until
+ * the timeout expires, and the time each artifact took to become visible is logged.
+ * <p>
+ * No checksum is published for some extensions, e.g. signatures, see
+ * {@link Checksums#isOmitted(Session, RemoteRepository, String)}: those artifacts are small, and are downloaded
+ * and compared with the local file instead.
+ * <p>
+ * The deployed file of a snapshot artifact is looked up in the version level metadata, so a snapshot deployed again
+ * by another build in the meantime is reported as a mismatch.
+ */
+final class DeploymentVerifier {
+    private static final long POLL_INTERVAL = 500;
+
+    private final Session session;
+
+    private final Log log;
+
+    private final int threads;
+
+    private final long timeout;
+
+    /**
+     * @param timeout the time in milliseconds to wait for the deployed artifacts to become visible
+     */
+    DeploymentVerifier(Session session, Log log, int threads, long timeout) {
+        this.session = session;
+        this.log = log;
+        this.threads = threads;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Verifies the artifacts of the given requests, throwing a {@link MojoException} listing all problems found.
+     */
+    void verify(List<ArtifactDeployerRequest> requests) throws MojoException {
+        ArtifactManager artifactManager = session.getService(ArtifactManager.class);
+        List<String> problems = Collections.synchronizedList(new ArrayList<>());
+        Map<RemoteRepository, Transport> transports = new LinkedHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            Map<String, Future<Long>> results = new LinkedHashMap<>();
+            for (ArtifactDeployerRequest request : requests) {
+                RemoteRepository repository = request.getRepository();
+                Transport transport = transports.computeIfAbsent(
+                        repository, r -> session.getService(TransportProvider.class).transport(session, r));
+                String algorithm = Checksums.verificationAlgorithm(session, repository);
+                Map<String, Future<Optional<Map<String, String>>>> snapshotVersions = new HashMap<>();
+                for (ProducedArtifact artifact : request.getArtifacts()) {
+                    Path path = artifactManager.getPath(artifact).orElse(null);
+                    if (path == null) {
+                        continue;
+                    }
+                    boolean snapshot = session.isVersionSnapshot(artifact.getVersion().toString());
+                    Future<Optional<Map<String, String>>> versions = snapshot
+                            ? snapshotVersions.computeIfAbsent(
+                                    getVersionPath(artifact),
+                                    p -> executor.submit(() -> getSnapshotVersions(transport, p)))
+                            : null;
+                    String artifactAlgorithm =
+                            Checksums.isOmitted(session, repository, artifact.getExtension()) ? null : algorithm;
+                    results.put(
+                            repository.getId() + " " + artifact.key(),
+                            executor.submit(() ->
+                                    verify(transport, artifactAlgorithm, artifact, path, versions, problems)));
+                }
+            }
+
+            long maxVisibility = -1;
+            for (Map.Entry<String, Future<Long>> result : results.entrySet()) {
+                long visibility = result.getValue().get();
+                if (visibility >= 0) {
+                    log.debug(result.getKey() + " visible after " + visibility + " ms");
+                    maxVisibility = Math.max(maxVisibility, visibility);
+                }
+            }
+            log.info("Verified " + (results.size() - problems.size()) + " of " + results.size() + " deployed artifacts"
+                    + (maxVisibility >= 0 ? ", visible after at most " + maxVisibility + " ms" : ""));
+        } catch (ExecutionException e) {
+            throw new MojoException("Error verifying deployed artifacts: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoException("Interrupted while verifying deployed artifacts", e);
+        } finally {
+            executor.shutdownNow();
+            for (Transport transport : transports.values()) {
+                try {
+                    transport.close();
+                } catch (Exception e) {
+                    log.debug("Unable to close transport: " + e.getMessage());
+                }
+            }
+        }
+
+        if (!problems.isEmpty()) {
+            throw new MojoException(problems.size() + " deployed artifacts failed verification:\n"
+                    + String.join("\n", problems));
+        }
+    }
+
+    /**
+     * Verifies one artifact and returns the time in milliseconds it took to become visible, from the start of its
+     * check rather than from the submission of the task, or -1 if it failed. The artifact itself is downloaded if the
+     * algorithm is {@code null}, i.e. if no checksum is published for it.
+     */
+    private long verify(
+            Transport transport,
+            String algorithm,
+            Artifact artifact,
+            Path path,
+            Future<Optional<Map<String, String>>> snapshotVersions,
+            List<String> problems)
+            throws Exception {
+        long start = System.nanoTime();
+        String version = artifact.getVersion().toString();
+        if (snapshotVersions != null) {
+            Optional<Map<String, String>> versions = snapshotVersions.get();
+            String snapshotVersion = versions.map(
+                            m -> m.get(artifact.getClassifier() + ":" + artifact.getExtension()))
+                    .orElse(null);
+            if (snapshotVersion == null) {
+                problems.add(artifact.key() + " is not listed in the snapshot metadata after " + timeout + " ms");
+                return -1;
+            }
+            version = snapshotVersion;
+        }
+        String remotePath = getVersionPath(artifact) + artifact.getArtifactId() + "-" + version
+                + (artifact.getClassifier().isEmpty() ? "" : "-" + artifact.getClassifier()) + "."
+                + artifact.getExtension();
+
+        Optional<String> remote = algorithm != null
+                ? poll(() -> transport.getString(URI.create(remotePath + "." + Checksums.extension(algorithm))), start)
+                : poll(() -> transport.getBytes(URI.create(remotePath)), start)
+                        .map(content -> Checksums.calculate(content, Checksums.SHA_1));
+        if (remote.isEmpty()) {
+            problems.add(artifact.key() + " is not visible after " + timeout + " ms");
+            return -1;
+        }
+        long visibility = (System.nanoTime() - start) / 1_000_000;
+        String expected = Checksums.calculate(path, algorithm != null ? algorithm : Checksums.SHA_1);
+        String actual = Checksums.parse(remote.get());
+        if (!expected.equals(actual)) {
+            problems.add("Checksum mismatch for " + artifact.key() + ": expected " + expected + " but was " + actual);
+            return -1;
+        }
+        return visibility;
+    }
+
+    private Optional<Map<String, String>> getSnapshotVersions(Transport transport, String versionPath)
+            throws Exception {
+        long start = System.nanoTime();
+        URI uri = URI.create(versionPath + "maven-metadata.xml");
+        Optional<String> metadata = poll(() -> transport.getString(uri), start);
+        if (metadata.isEmpty()) {
+            return Optional.empty();
+        }
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        Document document = factory.newDocumentBuilder()
+                .parse(new ByteArrayInputStream(metadata.get().getBytes(StandardCharsets.UTF_8)));
+        Map<String, String> versions = new HashMap<>();
+        NodeList nodes = document.getElementsByTagName("snapshotVersion");
+        for (int i = 0; i < nodes.getLength(); i++) {
+            Element element = (Element) nodes.item(i);
+            versions.put(text(element, "classifier") + ":" + text(element, "extension"), text(element, "value"));
+        }
+        return Optional.of(versions);
+    }
+
+    private static String text(Element element, String name) {
+        NodeList nodes = element.getElementsByTagName(name);
+        return nodes.getLength() > 0 ? nodes.item(0).getTextContent().trim() : "";
+    }
+
+    /**
+     * Fetches a resource, polling until it is visible or the timeout expires.
+     */
+    private <T> Optional<T> poll(Supplier<Optional<T>> fetch, long start) throws InterruptedException {
+        while (true) {
+            Optional<T> content = fetch.get();
+            if (content.isPresent() || System.nanoTime() - start > timeout * 1_000_000) {
+                return content;
+            }
+            Thread.sleep(POLL_INTERVAL);
+        }
+    }
+
+    private static String getVersionPath(Artifact artifact) {
+        return artifact.getGroupId().replace('.', '/') + "/" + artifact.getArtifactId() + "/"
+                + artifact.getVersion() + "/";
+    }
+}
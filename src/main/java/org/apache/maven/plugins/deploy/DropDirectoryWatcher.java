@@ -0,0 +1,447 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.deploy;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.maven.api.ProducedArtifact;
+import org.apache.maven.api.RemoteRepository;
+import org.apache.maven.api.Session;
+import org.apache.maven.api.model.Model;
+import org.apache.maven.api.plugin.Log;
+import org.apache.maven.api.plugin.MojoException;
+import org.apache.maven.api.services.ArtifactDeployer;
+import org.apache.maven.api.services.ArtifactDeployerRequest;
+import org.apache.maven.api.services.ArtifactManager;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+/**
+ * Watches a drop directory and continuously deploys the artifacts dropped into it, using a single Maven session.
+ * <p>
+ * Every POM file dropped into the directory defines a deployable unit: the POM itself plus all files named
+ * {@code artifactId-version[-classifier].extension} next to it. A file is only picked up once its size and
+ * modification time did not change during the configured quiet period, and a POM waits for those of its files which
+ * are still changing. A file dropped after its POM has been deployed is deployed along with the POM again, which
+ * release repositories usually refuse, so the POM should be dropped last. Deployed files are recorded in a ledger, so
+ * that nothing is deployed twice, even across restarts. A unit which fails to deploy is not retried until its files
+ * are dropped again, and makes the watch fail once it ends.
+ */
+class DropDirectoryWatcher {
+    private final Session session;
+
+    private final Log log;
+
+    private final RemoteRepository repository;
+
+    private final int retryFailedDeploymentCount;
+
+    private final Function<Path, Model> modelReader;
+
+    private final Path directory;
+
+    private final Path ledger;
+
+    private final long quietPeriod;
+
+    private final long idleTimeout;
+
+    private final int batchSize;
+
+    private final int threads;
+
+    private final Set<String> deployed = new HashSet<>();
+
+    private final Set<String> failed = new HashSet<>();
+
+    private int failedUnits;
+
+    private final Map<Path, FileState> observed = new HashMap<>();
+
+    private final Map<String, Model> models = new HashMap<>();
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    DropDirectoryWatcher(
+            Session session,
+            Log log,
+            RemoteRepository repository,
+            int retryFailedDeploymentCount,
+            Function<Path, Model> modelReader,
+            Path directory,
+            Path ledger,
+            long quietPeriod,
+            long idleTimeout,
+            int batchSize,
+            int threads) {
+        this.session = session;
+        this.log = log;
+        this.repository = repository;
+        this.retryFailedDeploymentCount = retryFailedDeploymentCount;
+        this.modelReader = modelReader;
+        this.directory = directory;
+        this.ledger = ledger;
+        this.quietPeriod = quietPeriod;
+        this.idleTimeout = idleTimeout;
+        this.batchSize = Math.max(1, batchSize);
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Watches the directory until the idle timeout elapses without any new file (forever if the timeout is not
+     * positive), or until the current thread is interrupted. Throws a {@link MojoException} at the end if any unit
+     * failed to deploy.
+     */
+    void run() throws MojoException {
+        loadLedger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (WatchService watchService = directory.getFileSystem().newWatchService()) {
+            directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+            log.info("Watching " + directory + " for artifacts to deploy to " + repository);
+            long lastActivity = System.currentTimeMillis();
+            while (!Thread.currentThread().isInterrupted()) {
+                if (scan(executor)) {
+                    lastActivity = System.currentTimeMillis();
+                }
+                if (idleTimeout > 0 && System.currentTimeMillis() - lastActivity >= idleTimeout) {
+                    log.info("No new artifacts in " + directory + " for " + idleTimeout + " ms, stopping");
+                    break;
+                }
+                WatchKey key = watchService.poll(Math.max(10, quietPeriod), TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    key.pollEvents();
+                    key.reset();
+                    lastActivity = System.currentTimeMillis();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException | IOException e) {
+            throw new MojoException("Error watching " + directory + ": " + e.getMessage(), e);
+        } finally {
+            executor.shutdownNow();
+        }
+        synchronized (this) {
+            if (failedUnits > 0) {
+                throw new MojoException(
+                        failedUnits + " units dropped into " + directory + " failed to deploy, see the errors above");
+            }
+        }
+    }
+
+    /**
+     * Deploys all stable files not deployed yet.
+     *
+     * @return {@code true} if any file is new, still changing or has been deployed
+     */
+    private boolean scan(ExecutorService executor) throws IOException, InterruptedException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(Files::isRegularFile)
+                    .filter(f -> !f.equals(ledger))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        long now = System.currentTimeMillis();
+        boolean pending = false;
+        Map<Path, String> stable = new LinkedHashMap<>();
+        List<String> changing = new ArrayList<>();
+        for (Path file : files) {
+            String entry;
+            try {
+                entry = ledgerEntry(file);
+            } catch (NoSuchFileException e) {
+                // moved or deleted since listed, e.g. a temporary file renamed once written: see the next scan
+                continue;
+            }
+            FileState previous = observed.get(file);
+            if (previous != null && previous.entry.equals(entry) && now - previous.since >= quietPeriod) {
+                stable.put(file, entry);
+                continue;
+            }
+            if (previous == null || !previous.entry.equals(entry)) {
+                observed.put(file, new FileState(entry, now));
+            }
+            if (isNew(entry)) {
+                pending = true;
+                changing.add(file.getFileName().toString());
+            }
+        }
+        observed.keySet().retainAll(files);
+
+        List<List<Path>> units = collectUnits(stable, changing);
+        if (units.isEmpty()) {
+            return pending;
+        }
+
+        // keep all versions of a groupId:artifactId in the same request, so its metadata is updated once, and never
+        // concurrently
+        Map<String, List<List<Path>>> unitsByGa = new LinkedHashMap<>();
+        for (List<Path> unit : units) {
+            Path pom = unit.get(unit.size() - 1);
+            Model model = readModel(pom, stable.get(pom));
+            unitsByGa
+                    .computeIfAbsent(groupId(model) + ":" + model.getArtifactId(), ga -> new ArrayList<>())
+                    .add(unit);
+        }
+
+        List<Future<?>> futures = new ArrayList<>();
+        List<List<Path>> batch = new ArrayList<>();
+        int batchFiles = 0;
+        for (List<List<Path>> gaUnits : unitsByGa.values()) {
+            for (List<Path> unit : gaUnits) {
+                batch.add(unit);
+                batchFiles += unit.size();
+            }
+            if (batchFiles >= batchSize) {
+                List<List<Path>> toDeploy = batch;
+                futures.add(executor.submit(() -> deploy(toDeploy, stable)));
+                batch = new ArrayList<>();
+                batchFiles = 0;
+            }
+        }
+        if (!batch.isEmpty()) {
+            List<List<Path>> toDeploy = batch;
+            futures.add(executor.submit(() -> deploy(toDeploy, stable)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new MojoException("Error deploying from " + directory, e.getCause());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Groups the stable files still to be deployed by the POM they belong to. A file belongs to the POM with the
+     * longest matching {@code artifactId-version} prefix, and the POM always comes last in its unit. A POM is held
+     * back, along with its stable files, as long as one of its files is still changing.
+     */
+    private List<List<Path>> collectUnits(Map<Path, String> stable, List<String> changing) {
+        Map<Path, String> prefixes = new LinkedHashMap<>();
+        for (Map.Entry<Path, String> file : stable.entrySet()) {
+            if (file.getKey().getFileName().toString().endsWith(".pom")) {
+                Model model = readModel(file.getKey(), file.getValue());
+                if (model != null) {
+                    prefixes.put(file.getKey(), model.getArtifactId() + "-" + version(model));
+                }
+            }
+        }
+
+        Set<Path> incomplete = new HashSet<>();
+        for (String name : changing) {
+            Path owner = owner(name, prefixes);
+            if (owner != null) {
+                incomplete.add(owner);
+            }
+        }
+
+        Map<Path, List<Path>> units = new LinkedHashMap<>();
+        for (Map.Entry<Path, String> file : stable.entrySet()) {
+            String name = file.getKey().getFileName().toString();
+            if (name.endsWith(".pom") || !isNew(file.getValue())) {
+                continue;
+            }
+            Path owner = owner(name, prefixes);
+            if (owner != null && !isArtifactName(name, prefixes.get(owner))) {
+                log.warn("Ignoring " + file.getKey() + ", which is not named " + prefixes.get(owner)
+                        + "[-classifier].extension");
+                synchronized (this) {
+                    failed.add(file.getValue());
+                }
+            } else if (owner != null && !incomplete.contains(owner)) {
+                units.computeIfAbsent(owner, p -> new ArrayList<>()).add(file.getKey());
+            }
+        }
+        for (Path pom : prefixes.keySet()) {
+            if (!incomplete.contains(pom) && (isNew(stable.get(pom)) || units.containsKey(pom))) {
+                units.computeIfAbsent(pom, p -> new ArrayList<>()).add(pom);
+            }
+        }
+        return new ArrayList<>(units.values());
+    }
+
+    /**
+     * Returns the POM with the longest {@code artifactId-version} prefix of the given file name, if any.
+     */
+    private static Path owner(String name, Map<Path, String> prefixes) {
+        Path owner = null;
+        for (Map.Entry<Path, String> pom : prefixes.entrySet()) {
+            String prefix = pom.getValue();
+            if (name.startsWith(prefix)
+                    && name.length() > prefix.length() + 1
+                    && (name.charAt(prefix.length()) == '.' || name.charAt(prefix.length()) == '-')
+                    && (owner == null || prefix.length() > prefixes.get(owner).length())) {
+                owner = pom.getKey();
+            }
+        }
+        return owner;
+    }
+
+    /**
+     * Returns whether the given file name is the given {@code artifactId-version} prefix followed by an optional
+     * classifier and a non empty extension.
+     */
+    private static boolean isArtifactName(String name, String prefix) {
+        String remainder = name.substring(prefix.length());
+        int dot = remainder.indexOf('.');
+        return dot == 0 ? remainder.length() > 1 : dot > 1 && dot < remainder.length() - 1;
+    }
+
+    private synchronized Model readModel(Path pom, String entry) {
+        Model model = models.get(entry);
+        if (model == null && !failed.contains(entry)) {
+            try {
+                model = modelReader.apply(pom);
+                models.put(entry, model);
+            } catch (MojoException e) {
+                failed.add(entry);
+                log.error("Ignoring unreadable POM " + pom + ": " + e.getMessage());
+            }
+        }
+        return model;
+    }
+
+    private static String groupId(Model model) {
+        return model.getGroupId() != null
+                ? model.getGroupId()
+                : model.getParent() != null ? model.getParent().getGroupId() : null;
+    }
+
+    private void deploy(List<List<Path>> units, Map<Path, String> stable) {
+        ArtifactManager artifactManager = session.getService(ArtifactManager.class);
+        List<ProducedArtifact> artifacts = new ArrayList<>();
+        for (List<Path> unit : units) {
+            Path pom = unit.get(unit.size() - 1);
+            Model model = readModel(pom, stable.get(pom));
+            String groupId = groupId(model);
+            String prefix = model.getArtifactId() + "-" + version(model);
+            for (Path file : unit) {
+                ProducedArtifact artifact;
+                if (file == pom) {
+                    artifact = session.createProducedArtifact(
+                            groupId, model.getArtifactId(), version(model), "", "pom", null);
+                } else {
+                    String remainder = file.getFileName().toString().substring(prefix.length());
+                    int dot = remainder.indexOf('.');
+                    String classifier = dot > 0 ? remainder.substring(1, dot) : "";
+                    String extension = remainder.substring(dot + 1);
+                    artifact = session.createProducedArtifact(
+                            groupId,
+                            model.getArtifactId(),
+                            version(model),
+                            classifier,
+                            extension,
+                            classifier.isEmpty() ? model.getPackaging() : null);
+                }
+                artifactManager.setPath(artifact, file);
+                artifacts.add(artifact);
+            }
+        }
+
+        List<String> entries = units.stream()
+                .flatMap(List::stream)
+                .map(stable::get)
+                .collect(Collectors.toList());
+        try {
+            log.info("Deploying artifacts " + artifacts + " to repository " + repository);
+            session.getService(ArtifactDeployer.class)
+                    .deploy(ArtifactDeployerRequest.builder()
+                            .session(session)
+                            .repository(repository)
+                            .artifacts(artifacts)
+                            .retryFailedDeploymentCount(retryFailedDeploymentCount)
+                            .build());
+        } catch (RuntimeException e) {
+            log.error("Failed to deploy " + artifacts + ": " + e.getMessage(), e);
+            synchronized (this) {
+                failed.addAll(entries);
+                failedUnits += units.size();
+            }
+            return;
+        }
+        // outside of the try block: a ledger which cannot be written must not be taken for a failed deployment
+        recordDeployed(entries);
+    }
+
+    private synchronized boolean isNew(String entry) {
+        return !deployed.contains(entry) && !failed.contains(entry);
+    }
+
+    private synchronized void recordDeployed(List<String> entries) {
+        try {
+            Files.write(ledger, entries, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new MojoException("Error writing ledger " + ledger + ": " + e.getMessage(), e);
+        }
+        deployed.addAll(entries);
+    }
+
+    private void loadLedger() throws MojoException {
+        if (Files.isRegularFile(ledger)) {
+            try {
+                deployed.addAll(Files.readAllLines(ledger));
+            } catch (IOException e) {
+                throw new MojoException("Error reading ledger " + ledger + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * The ledger identifies a dropped file by its name, size and modification time: a file dropped again with new
+     * content is deployed again.
+     */
+    private static String ledgerEntry(Path file) throws IOException {
+        return file.getFileName() + "\t" + Files.size(file) + "\t"
+                + Files.getLastModifiedTime(file).toMillis();
+    }
+
+    private static String version(Model model) {
+        return model.getVersion() != null
+                ? model.getVersion()
+                : model.getParent() != null ? model.getParent().getVersion() : null;
+    }
+
+    private record FileState(String entry, long since) {}
+}
@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.deploy;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringWriter;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.maven.api.ProducedArtifact;
+import org.apache.maven.api.RemoteRepository;
+import org.apache.maven.api.Session;
+import org.apache.maven.api.plugin.Log;
+import org.apache.maven.api.plugin.MojoException;
+import org.apache.maven.api.services.ArtifactDeployerRequest;
+import org.apache.maven.api.services.Transport;
+import org.apache.maven.api.services.TransportProvider;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Repairs the <code>groupId/artifactId/maven-metadata.xml</code> files updated concurrently by several deployers.
+ * Each deployer downloads the metadata, adds its version and uploads it again, so with concurrent deployers a version
+ * can be lost. Once deployed, the metadata of every <code>groupId:artifactId</code> is read back, and the versions
+ * missing from it are merged into the latest remote copy, whose latest and release versions are recomputed, and which
+ * is uploaded again along with its checksums. The metadata is then read back again after a random, growing delay, so
+ * that competing deployers do not keep colliding, until it lists all versions or the number of attempts is exhausted.
+ * The checksum files uploaded are those of the checksum algorithms of the repository, see
+ * {@link Checksums#algorithms(Session, RemoteRepository)}.
+ * <p>
+ * Repositories offer no conditional writes through the Maven transport, so this is an optimistic scheme based on
+ * reading back the written metadata rather than on compare-and-set.
+ */
+final class MetadataReconciler {
+    private static final String METADATA_FILE_NAME = "maven-metadata.xml";
+
+    private static final DateTimeFormatter LAST_UPDATED_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private static final long BACKOFF = 200;
+
+    private final Session session;
+
+    private final Log log;
+
+    private final int threads;
+
+    private final int attempts;
+
+    MetadataReconciler(Session session, Log log, int threads, int attempts) {
+        this.session = session;
+        this.log = log;
+        this.threads = threads;
+        this.attempts = attempts;
+    }
+
+    /**
+     * Makes sure the metadata of every <code>groupId:artifactId</code> of the given requests lists the deployed
+     * versions, throwing a {@link MojoException} if it could not be repaired.
+     */
+    void reconcile(List<ArtifactDeployerRequest> requests) throws MojoException {
+        Map<RemoteRepository, Map<String, Set<String>>> versions = new LinkedHashMap<>();
+        for (ArtifactDeployerRequest request : requests) {
+            for (ProducedArtifact artifact : request.getArtifacts()) {
+                versions.computeIfAbsent(request.getRepository(), r -> new LinkedHashMap<>())
+                        .computeIfAbsent(
+                                artifact.getGroupId().replace('.', '/') + "/" + artifact.getArtifactId() + "/",
+                                ga -> new LinkedHashSet<>())
+                        .add(artifact.getVersion().toString());
+            }
+        }
+
+        List<String> failures = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            for (Map.Entry<RemoteRepository, Map<String, Set<String>>> entry : versions.entrySet()) {
+                RemoteRepository repository = entry.getKey();
+                try (Transport transport =
+                        session.getService(TransportProvider.class).transport(session, repository)) {
+                    List<String> algorithms = Checksums.algorithms(session, repository);
+                    Map<String, Future<Boolean>> results = new LinkedHashMap<>();
+                    entry.getValue()
+                            .forEach((gaPath, gaVersions) -> results.put(
+                                    gaPath,
+                                    executor.submit(() -> reconcile(transport, algorithms, gaPath, gaVersions))));
+                    for (Map.Entry<String, Future<Boolean>> result : results.entrySet()) {
+                        if (!result.getValue().get()) {
+                            failures.add(result.getKey() + METADATA_FILE_NAME + " of repository " + repository.getId()
+                                    + " still misses some of " + entry.getValue().get(result.getKey()) + " after "
+                                    + attempts + " attempts");
+                        }
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new MojoException("Error reconciling metadata: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoException("Interrupted while reconciling metadata", e);
+        } catch (Exception e) {
+            throw new MojoException("Error reconciling metadata: " + e.getMessage(), e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (!failures.isEmpty()) {
+            throw new MojoException("Unable to reconcile the metadata updated by concurrent deployers:\n"
+                    + String.join("\n", failures));
+        }
+    }
+
+    /**
+     * Reconciles the metadata of one <code>groupId:artifactId</code>, returning whether it lists all the versions.
+     */
+    private boolean reconcile(Transport transport, List<String> algorithms, String gaPath, Set<String> versions)
+            throws Exception {
+        URI uri = URI.create(gaPath + METADATA_FILE_NAME);
+        for (int attempt = 0; ; attempt++) {
+            Optional<String> metadata = transport.getString(uri);
+            if (metadata.isEmpty()) {
+                // no GA level metadata, e.g. a repository layout not using it: nothing to repair
+                return true;
+            }
+            Document document = parse(metadata.get());
+            Set<String> missing = new LinkedHashSet<>(versions);
+            missing.removeAll(getVersions(document));
+            if (missing.isEmpty()) {
+                return true;
+            }
+            if (attempt >= attempts) {
+                return false;
+            }
+            log.warn(gaPath + METADATA_FILE_NAME + " misses " + missing + ", probably overwritten by a concurrent"
+                    + " deployer, adding them back");
+            addVersions(document, missing);
+            put(transport, algorithms, gaPath, serialize(document));
+            // give competing deployers time to finish their own update before reading it back
+            Thread.sleep(ThreadLocalRandom.current().nextLong(BACKOFF * (attempt + 1), BACKOFF * (attempt + 2)));
+        }
+    }
+
+    private static Set<String> getVersions(Document document) {
+        Set<String> versions = new LinkedHashSet<>();
+        NodeList nodes = document.getElementsByTagName("version");
+        for (int i = 0; i < nodes.getLength(); i++) {
+            if ("versions".equals(nodes.item(i).getParentNode().getNodeName())) {
+                versions.add(nodes.item(i).getTextContent().trim());
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * Adds the missing versions, keeping the versions sorted, and recomputes the latest and release versions from
+     * them, like the repository system does when it updates the metadata.
+     */
+    private void addVersions(Document document, Set<String> missing) {
+        Element root = document.getDocumentElement();
+        Element versioning = child(document, root, "versioning");
+        Element versionsElement = child(document, versioning, "versions");
+        List<String> versions = new ArrayList<>(getVersions(document));
+        versions.addAll(missing);
+        versions.sort(Comparator.comparing(session::parseVersion));
+        while (versionsElement.hasChildNodes()) {
+            versionsElement.removeChild(versionsElement.getFirstChild());
+        }
+        for (String version : versions) {
+            Element element = document.createElement("version");
+            element.setTextContent(version);
+            versionsElement.appendChild(element);
+        }
+        child(document, versioning, "latest").setTextContent(versions.get(versions.size() - 1));
+        versions.stream()
+                .filter(v -> !session.isVersionSnapshot(v))
+                .reduce((first, second) -> second)
+                .ifPresent(release -> child(document, versioning, "release").setTextContent(release));
+        child(document, versioning, "lastUpdated")
+                .setTextContent(LAST_UPDATED_FORMAT.format(ZonedDateTime.now(ZoneOffset.UTC)));
+    }
+
+    private static Element child(Document document, Element parent, String name) {
+        NodeList nodes = parent.getElementsByTagName(name);
+        for (int i = 0; i < nodes.getLength(); i++) {
+            if (nodes.item(i).getParentNode() == parent) {
+                return (Element) nodes.item(i);
+            }
+        }
+        Element element = document.createElement(name);
+        parent.appendChild(element);
+        return element;
+    }
+
+    private static void put(Transport transport, List<String> algorithms, String gaPath, String metadata) {
+        byte[] content = metadata.getBytes(StandardCharsets.UTF_8);
+        String path = gaPath + METADATA_FILE_NAME;
+        transport.putBytes(content, URI.create(path));
+        for (String algorithm : algorithms) {
+            transport.putString(
+                    Checksums.calculate(content, algorithm), URI.create(path + "." + Checksums.extension(algorithm)));
+        }
+    }
+
+    private static Document parse(String metadata) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        return factory.newDocumentBuilder().parse(new ByteArrayInputStream(metadata.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String serialize(Document document) throws Exception {
+        TransformerFactory factory = TransformerFactory.newInstance();
+        factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_STYLESHEET, "");
+        Transformer transformer = factory.newTransformer();
+        transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+        StringWriter writer = new StringWriter();
+        transformer.transform(new DOMSource(document), new StreamResult(writer));
+        return writer.toString();
+    }
+}
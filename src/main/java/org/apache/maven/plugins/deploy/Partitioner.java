@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.deploy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Splits weighted items into a fixed number of bins of similar total weight, placing the heaviest items first, each
+ * into the currently lightest bin. Ties are broken by item key and bin index, so the result only depends on the items
+ * and never on their initial order.
+ */
+final class Partitioner {
+    private Partitioner() {}
+
+    static <T> List<List<T>> partition(
+            Collection<T> items, int binCount, ToLongFunction<T> weight, Function<T, String> key) {
+        List<T> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingLong(weight).reversed().thenComparing(key));
+
+        List<List<T>> bins = new ArrayList<>();
+        long[] loads = new long[binCount];
+        for (int i = 0; i < binCount; i++) {
+            bins.add(new ArrayList<>());
+        }
+        for (T item : sorted) {
+            int lightest = 0;
+            for (int i = 1; i < binCount; i++) {
+                if (loads[i] < loads[lightest]) {
+                    lightest = i;
+                }
+            }
+            bins.get(lightest).add(item);
+            loads[lightest] += weight.applyAsLong(item);
+        }
+        return bins;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.deploy;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.maven.api.ProducedArtifact;
+import org.apache.maven.api.RemoteRepository;
+import org.apache.maven.api.Session;
+import org.apache.maven.api.plugin.MojoException;
+import org.apache.maven.api.services.ArtifactDeployerRequest;
+import org.apache.maven.api.services.ArtifactManager;
+import org.apache.maven.api.services.Transport;
+import org.apache.maven.api.services.TransportProvider;
+
+/**
+ * Checks a set of deploy requests before anything is uploaded, so that problems are reported in seconds rather than
+ * after part of the artifacts have been deployed:
+ * <ul>
+ *     <li>every artifact file exists, is readable, and keeps the same size while the checks run</li>
+ *     <li>no artifact is deployed to the same repository from two different files</li>
+ *     <li>every target repository is reachable, and accepts an upload of the probe file, if any: without a probe
+ *     file, a small file the repository is not expected to hold is requested, and any answer, even not found, passes,
+ *     so neither the credentials nor the write permissions are checked</li>
+ * </ul>
+ * The files and repositories are checked concurrently.
+ */
+final class Preflight {
+    private static final String PROBE_CONTENT = "Maven deploy pre-flight probe";
+
+    private final Session session;
+
+    private final int threads;
+
+    private final String probePath;
+
+    /**
+     * @param probePath the path, relative to the repository root, of a file uploaded to every repository to check
+     *                  write access, or {@code null} to only check that the repositories are reachable
+     */
+    Preflight(Session session, int threads, String probePath) {
+        this.session = session;
+        this.threads = threads;
+        this.probePath = probePath;
+    }
+
+    /**
+     * Runs the checks, throwing a {@link MojoException} listing all problems found.
+     */
+    void check(List<ArtifactDeployerRequest> requests) throws MojoException {
+        List<String> problems = Collections.synchronizedList(new ArrayList<>());
+        ArtifactManager artifactManager = session.getService(ArtifactManager.class);
+
+        Map<Path, ProducedArtifact> files = new LinkedHashMap<>();
+        Map<String, Path> pathsByKey = new LinkedHashMap<>();
+        Set<RemoteRepository> repositories = new LinkedHashSet<>();
+        for (ArtifactDeployerRequest request : requests) {
+            repositories.add(request.getRepository());
+            for (ProducedArtifact artifact : request.getArtifacts()) {
+                Path path = artifactManager.getPath(artifact).orElse(null);
+                if (path == null) {
+                    problems.add("No file assigned to " + artifact);
+                    continue;
+                }
+                files.putIfAbsent(path, artifact);
+                String key = request.getRepository().getId() + " " + artifact.key();
+                Path existing = pathsByKey.putIfAbsent(key, path);
+                if (existing != null && !existing.equals(path)) {
+                    problems.add(artifact.key() + " is deployed to repository " + request.getRepository().getId()
+                            + " from both " + existing + " and " + path);
+                }
+            }
+        }
+
+        Map<Path, Long> sizes = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            files.forEach((path, artifact) -> futures.add(executor.submit(() -> {
+                if (!Files.isRegularFile(path) || !Files.isReadable(path)) {
+                    problems.add("The file " + path + " of " + artifact + " does not exist or is not readable");
+                } else {
+                    sizes.put(path, size(path));
+                }
+            })));
+            for (RemoteRepository repository : repositories) {
+                futures.add(executor.submit(() -> probe(repository, problems)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            // the repository probes give the files some time to show they are still being written
+            futures.clear();
+            sizes.forEach((path, size) -> futures.add(executor.submit(() -> {
+                if (size(path) != size) {
+                    problems.add("The size of " + path + " of " + files.get(path) + " is changing");
+                }
+            })));
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new MojoException("Error during pre-flight checks: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoException("Interrupted during pre-flight checks", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (!problems.isEmpty()) {
+            throw new MojoException(
+                    "Pre-flight checks failed, nothing has been deployed:\n" + String.join("\n", problems));
+        }
+    }
+
+    private void probe(RemoteRepository repository, List<String> problems) {
+        if (probePath == null && "file".equals(repository.getProtocol())) {
+            // there is nothing to reach, and the repository directory may not exist yet
+            return;
+        }
+        try (Transport transport = session.getService(TransportProvider.class).transport(session, repository)) {
+            if (probePath != null) {
+                transport.putString(PROBE_CONTENT, URI.create(probePath));
+            } else {
+                transport.getString(TransportWarmer.PROBE);
+            }
+        } catch (Exception e) {
+            problems.add("The repository " + repository.getId() + " (" + repository.getUrl() + ") cannot be "
+                    + (probePath != null ? "written to: " : "reached: ") + e.getMessage());
+        }
+    }
+
+    private static long size(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
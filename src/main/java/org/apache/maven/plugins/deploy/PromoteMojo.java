@@ -0,0 +1,323 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.deploy;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.maven.api.ProducedArtifact;
+import org.apache.maven.api.RemoteRepository;
+import org.apache.maven.api.plugin.MojoException;
+import org.apache.maven.api.plugin.annotations.Mojo;
+import org.apache.maven.api.plugin.annotations.Parameter;
+import org.apache.maven.api.services.ArtifactDeployer;
+import org.apache.maven.api.services.ArtifactDeployerException;
+import org.apache.maven.api.services.ArtifactDeployerRequest;
+import org.apache.maven.api.services.ArtifactManager;
+import org.apache.maven.api.services.Transport;
+import org.apache.maven.api.services.TransportProvider;
+
+/**
+ * Promotes already deployed artifacts from a source repository to a target repository, e.g. from a staging
+ * repository to a release repository, without resolving them into the local repository first. The POM of every
+ * promoted GAV is promoted as well, and the artifacts are checked against the checksums published in the source
+ * repository, SHA-1 or else the first algorithm of <code>aether.checksums.algorithms</code> for that repository,
+ * before being deployed to the target repository.
+ *
+ * @since 4.0.0-beta-3
+ */
+@Mojo(name = "promote", projectRequired = false)
+public class PromoteMojo extends AbstractDeployMojo {
+    /**
+     * The repository to promote the artifacts from, using the <code>id::url</code> syntax. Artifacts of
+     * <code>file:</code> repositories are read in place, those of other repositories are fetched into a temporary
+     * directory which is removed once the promotion is done.
+     */
+    @Parameter(property = "sourceRepository", required = true)
+    private String sourceRepository;
+
+    /**
+     * The repository to promote the artifacts to, using the <code>id::url</code> syntax.
+     */
+    @Parameter(property = "targetRepository", required = true)
+    private String targetRepository;
+
+    /**
+     * A comma separated list of the artifacts to promote, each given as
+     * <code>groupId:artifactId[:extension[:classifier]]:version</code>. Snapshot versions cannot be promoted.
+     */
+    @Parameter(property = "artifacts")
+    private String artifacts;
+
+    /**
+     * A file listing the artifacts to promote, one <code>groupId:artifactId[:extension[:classifier]]:version</code>
+     * per line. Empty lines and lines starting with <code>#</code> are ignored.
+     */
+    @Parameter(property = "artifactsFile")
+    private Path artifactsFile;
+
+    /**
+     * The number of artifacts fetched from the source repository concurrently.
+     */
+    @Parameter(property = "promoteThreads", defaultValue = "4")
+    private int promoteThreads;
+
+    /**
+     * Set this to 'true' to bypass the promotion.
+     */
+    @Parameter(property = "maven.deploy.promote.skip", defaultValue = "false")
+    private boolean skip;
+
+    public void execute() throws MojoException {
+        if (skip) {
+            getLog().info("Skipping artifact promotion");
+            return;
+        }
+
+        List<Coordinates> coordinates = collectCoordinates();
+        if (coordinates.isEmpty()) {
+            throw new MojoException("You must specify 'artifacts' or 'artifactsFile' to promote");
+        }
+        // the files of a snapshot are stored under timestamped versions, and a promoted snapshot would get a new one
+        List<String> snapshots = coordinates.stream()
+                .filter(c -> session.isVersionSnapshot(c.version()))
+                .map(Coordinates::toString)
+                .collect(Collectors.toList());
+        if (!snapshots.isEmpty()) {
+            throw new MojoException("Snapshot versions cannot be promoted: " + String.join(", ", snapshots));
+        }
+
+        RemoteRepository source = createDeploymentArtifactRepository(sourceRepository);
+        RemoteRepository target = createDeploymentArtifactRepository(targetRepository);
+
+        failIfOffline();
+
+        Path sourceBaseDir = getBaseDirectory(source);
+        Path tempDir = null;
+        try (Transport transport = sourceBaseDir == null
+                ? session.getService(TransportProvider.class).transport(session, source)
+                : null) {
+            if (sourceBaseDir == null) {
+                tempDir = Files.createTempDirectory("maven-deploy-promote");
+            }
+            Path fetchDir = tempDir;
+            List<ProducedArtifact> deployables =
+                    fetchAll(coordinates, c -> fetch(c, source, sourceBaseDir, transport, fetchDir));
+
+            ArtifactDeployerRequest deployRequest = ArtifactDeployerRequest.builder()
+                    .session(session)
+                    .repository(target)
+                    .artifacts(deployables)
+                    .retryFailedDeploymentCount(Math.max(1, Math.min(10, getRetryFailedDeploymentCount())))
+                    .build();
+
+            getLog().info("Promoting " + deployables.size() + " artifacts from " + source + " to " + target);
+            session.getService(ArtifactDeployer.class).deploy(deployRequest);
+        } catch (ArtifactDeployerException e) {
+            throw new MojoException(e.getMessage(), e);
+        } catch (IOException e) {
+            throw new MojoException("Error promoting artifacts: " + e.getMessage(), e);
+        } finally {
+            if (tempDir != null) {
+                deleteRecursively(tempDir, "temporary directory");
+            }
+        }
+    }
+
+    /**
+     * Collects the coordinates to promote, adding the POM of each GAV if not listed explicitly. POMs come last, so the
+     * target repository only sees a GAV's POM once everything else of that GAV is in place.
+     */
+    private List<Coordinates> collectCoordinates() throws MojoException {
+        List<String> lines = new ArrayList<>();
+        if (artifacts != null) {
+            lines.addAll(List.of(artifacts.split(",")));
+        }
+        if (artifactsFile != null) {
+            try (Stream<String> stream = Files.lines(artifactsFile)) {
+                stream.map(String::trim)
+                        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                        .forEach(lines::add);
+            } catch (IOException e) {
+                throw new MojoException("Unable to read artifacts file " + artifactsFile + ": " + e.getMessage(), e);
+            }
+        }
+
+        Set<Coordinates> result = new LinkedHashSet<>();
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            result.add(Coordinates.parse(line.trim()));
+        }
+        for (Coordinates c : List.copyOf(result)) {
+            result.add(new Coordinates(c.groupId(), c.artifactId(), c.version(), "", "pom"));
+        }
+        return result.stream()
+                .sorted(Comparator.comparing(c -> "pom".equals(c.extension()) && c.classifier().isEmpty()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Fetches all artifacts using up to {@link #promoteThreads} threads, keeping the order of the coordinates.
+     */
+    private List<ProducedArtifact> fetchAll(List<Coordinates> coordinates, Fetcher fetcher)
+            throws MojoException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, promoteThreads));
+        try {
+            List<Future<ProducedArtifact>> futures = new ArrayList<>();
+            for (Coordinates c : coordinates) {
+                futures.add(executor.submit(() -> fetcher.fetch(c)));
+            }
+            List<ProducedArtifact> result = new ArrayList<>();
+            for (Future<ProducedArtifact> future : futures) {
+                result.add(future.get());
+            }
+            return result;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MojoException mojoException) {
+                throw mojoException;
+            }
+            throw new MojoException("Error fetching artifact: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoException("Interrupted while fetching artifacts", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Fetches the given artifact from the source repository, and checks it against the checksum the source repository
+     * publishes, as configured by <code>aether.checksums.algorithms</code>, unless no checksum is published for its
+     * extension.
+     */
+    private ProducedArtifact fetch(
+            Coordinates c, RemoteRepository source, Path sourceBaseDir, Transport transport, Path fetchDir)
+            throws IOException, MojoException {
+        String relativePath = c.toPath();
+        String algorithm = Checksums.isOmitted(session, source, c.extension())
+                ? null
+                : Checksums.verificationAlgorithm(session, source);
+        String checksumPath = algorithm == null ? null : relativePath + "." + Checksums.extension(algorithm);
+        Path file;
+        Optional<String> checksum;
+        if (sourceBaseDir != null) {
+            file = sourceBaseDir.resolve(relativePath);
+            if (!Files.isRegularFile(file)) {
+                throw new MojoException("The artifact " + c + " does not exist in the source repository");
+            }
+            Path checksumFile = sourceBaseDir.resolve(checksumPath);
+            checksum = algorithm != null && Files.isRegularFile(checksumFile)
+                    ? Optional.of(Files.readString(checksumFile))
+                    : Optional.empty();
+        } else {
+            file = fetchDir.resolve(relativePath);
+            Files.createDirectories(file.getParent());
+            if (!transport.get(URI.create(relativePath), file)) {
+                throw new MojoException("The artifact " + c + " does not exist in the source repository");
+            }
+            checksum = algorithm != null ? transport.getString(URI.create(checksumPath)) : Optional.empty();
+        }
+
+        if (checksum.isPresent()) {
+            String expected = Checksums.parse(checksum.get());
+            String actual = Checksums.calculate(file, algorithm);
+            if (!expected.equals(actual)) {
+                throw new MojoException("Checksum mismatch for " + c + ": expected " + expected + " but was " + actual);
+            }
+        } else if (algorithm != null) {
+            getLog().warn("No " + algorithm + " checksum found for " + c + " in the source repository");
+        }
+
+        ProducedArtifact artifact = session.createProducedArtifact(
+                c.groupId(), c.artifactId(), c.version(), c.classifier(), c.extension(), null);
+        session.getService(ArtifactManager.class).setPath(artifact, file);
+        return artifact;
+    }
+
+    /**
+     * Returns the base directory of a <code>file:</code> repository, or {@code null} for any other repository.
+     */
+    private static Path getBaseDirectory(RemoteRepository repository) {
+        if (!"file".equals(repository.getProtocol())) {
+            return null;
+        }
+        return Paths.get(URI.create(repository.getUrl()));
+    }
+
+    @FunctionalInterface
+    private interface Fetcher {
+        ProducedArtifact fetch(Coordinates coordinates) throws IOException, MojoException;
+    }
+
+    /**
+     * The coordinates of an artifact to promote.
+     */
+    record Coordinates(String groupId, String artifactId, String version, String classifier, String extension) {
+        static Coordinates parse(String coordinates) throws MojoException {
+            String[] tokens = coordinates.split(":", -1);
+            for (String token : tokens) {
+                if (token.isEmpty()) {
+                    throw invalid(coordinates);
+                }
+            }
+            return switch (tokens.length) {
+                case 3 -> new Coordinates(tokens[0], tokens[1], tokens[2], "", "jar");
+                case 4 -> new Coordinates(tokens[0], tokens[1], tokens[3], "", tokens[2]);
+                case 5 -> new Coordinates(tokens[0], tokens[1], tokens[4], tokens[3], tokens[2]);
+                default -> throw invalid(coordinates);
+            };
+        }
+
+        private static MojoException invalid(String coordinates) {
+            return new MojoException("Invalid artifact coordinates " + coordinates
+                    + ", expected groupId:artifactId[:extension[:classifier]]:version");
+        }
+
+        /**
+         * Returns the path of the artifact in the Maven 2 repository layout.
+         */
+        String toPath() {
+            return groupId.replace('.', '/') + "/" + artifactId + "/" + version + "/" + artifactId + "-" + version
+                    + (classifier.isEmpty() ? "" : "-" + classifier) + "." + extension;
+        }
+
+        @Override
+        public String toString() {
+            return groupId + ":" + artifactId + ":" + extension + (classifier.isEmpty() ? "" : ":" + classifier) + ":"
+                    + version;
+        }
+    }
+}
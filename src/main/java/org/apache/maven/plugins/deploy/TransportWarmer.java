@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.deploy;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.api.RemoteRepository;
+import org.apache.maven.api.Session;
+import org.apache.maven.api.plugin.Log;
+import org.apache.maven.api.services.Transport;
+import org.apache.maven.api.services.TransportProvider;
+
+/**
+ * Connects to the deployment repositories in the background while the reactor is still building, so that a deployment
+ * deferred to the end of the build does not start by paying for the DNS lookups, TLS handshakes and authentication
+ * challenges. Each repository is requested once per session, for a small file it is not expected to hold, rather than
+ * for its root, which some repositories answer with a whole directory listing: whatever the answer, the connections
+ * and authentication state the transport keeps for the session are then ready for the uploads. The background thread
+ * stops once idle, so it does not outlive the build even if the deployment never happens, e.g. when the build fails.
+ */
+final class TransportWarmer {
+    /**
+     * A small file the repositories are not expected to hold, requested to connect to them.
+     */
+    static final URI PROBE = URI.create(".maven-deploy-plugin-probe");
+
+    private static final long KEEP_ALIVE_SECONDS = 10;
+
+    private final Session session;
+
+    private final Log log;
+
+    private final Set<String> repositories = ConcurrentHashMap.newKeySet();
+
+    private final ThreadPoolExecutor executor =
+            new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "deploy-transport-warmer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    TransportWarmer(Session session, Log log) {
+        this.session = session;
+        this.log = log;
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Connects in the background to those of the given repositories not connected to yet.
+     */
+    void warm(Collection<RemoteRepository> repositories) {
+        for (RemoteRepository repository : repositories) {
+            if (!"file".equals(repository.getProtocol())
+                    && this.repositories.add(repository.getId() + "::" + repository.getUrl())) {
+                executor.execute(() -> warm(repository));
+            }
+        }
+    }
+
+    /**
+     * Lets the pending connections complete, without accepting new ones.
+     */
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private void warm(RemoteRepository repository) {
+        long start = System.nanoTime();
+        try (Transport transport = session.getService(TransportProvider.class).transport(session, repository)) {
+            // the probe being absent is the expected answer
+            transport.getString(PROBE);
+            log.debug("Connected to repository " + repository.getId() + " (" + repository.getUrl() + ") in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (Exception e) {
+            // the deployment itself will report the problem, if it persists
+            log.debug("Unable to connect to repository " + repository.getId() + " (" + repository.getUrl() + "): "
+                    + e.getMessage());
+        }
+    }
+}
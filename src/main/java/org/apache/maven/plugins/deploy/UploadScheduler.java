@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.deploy;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+import org.apache.maven.api.ProducedArtifact;
+import org.apache.maven.api.RemoteRepository;
+import org.apache.maven.api.Session;
+import org.apache.maven.api.services.ArtifactDeployerRequest;
+
+/**
+ * Spreads deploy requests over parallel upload lanes so that the whole deployment finishes as early as possible. The
+ * artifacts of a repository are split into units, one per <code>groupId:artifactId</code> so the repository metadata
+ * of an artifact is never written concurrently, and the units are assigned largest first to the least loaded lane.
+ * Within a unit, the artifacts of each version are uploaded largest first and the POM last.
+ */
+final class UploadScheduler {
+    /**
+     * The requests uploaded sequentially by one lane, with the total size of their artifacts.
+     */
+    record Lane(RemoteRepository repository, List<ArtifactDeployerRequest> requests, long size) {}
+
+    private record Unit(String key, List<ProducedArtifact> artifacts, long size) {}
+
+    private UploadScheduler() {}
+
+    static List<Lane> schedule(
+            Session session,
+            List<ArtifactDeployerRequest> requests,
+            int lanesPerRepository,
+            ToLongFunction<ProducedArtifact> size) {
+        List<Lane> lanes = new ArrayList<>();
+        for (ArtifactDeployerRequest request : requests) {
+            Map<String, List<ProducedArtifact>> artifactsByGa = new LinkedHashMap<>();
+            for (ProducedArtifact artifact : request.getArtifacts()) {
+                artifactsByGa
+                        .computeIfAbsent(artifact.getGroupId() + ":" + artifact.getArtifactId(), k -> new ArrayList<>())
+                        .add(artifact);
+            }
+            List<Unit> units = new ArrayList<>();
+            artifactsByGa.forEach((ga, artifacts) -> {
+                artifacts.sort(Comparator.comparing((ProducedArtifact a) -> a.getVersion().toString())
+                        .thenComparing(UploadScheduler::isPom)
+                        .thenComparing(Comparator.comparingLong(size).reversed()));
+                units.add(new Unit(ga, artifacts, artifacts.stream().mapToLong(size).sum()));
+            });
+
+            for (List<Unit> laneUnits :
+                    Partitioner.partition(units, Math.max(1, lanesPerRepository), Unit::size, Unit::key)) {
+                if (laneUnits.isEmpty()) {
+                    continue;
+                }
+                List<ArtifactDeployerRequest> laneRequests = new ArrayList<>();
+                for (Unit unit : laneUnits) {
+                    laneRequests.add(ArtifactDeployerRequest.builder()
+                            .session(session)
+                            .repository(request.getRepository())
+                            .retryFailedDeploymentCount(request.getRetryFailedDeploymentCount())
+                            .artifacts(unit.artifacts())
+                            .build());
+                }
+                lanes.add(new Lane(
+                        request.getRepository(),
+                        laneRequests,
+                        laneUnits.stream().mapToLong(Unit::size).sum()));
+            }
+        }
+        lanes.sort(Comparator.comparingLong(Lane::size).reversed());
+        return lanes;
+    }
+
+    private static boolean isPom(ProducedArtifact artifact) {
+        return "pom".equals(artifact.getExtension()) && artifact.getClassifier().isEmpty();
+    }
+}
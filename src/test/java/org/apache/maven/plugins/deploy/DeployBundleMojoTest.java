@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.deploy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.maven.api.Artifact;
+import org.apache.maven.api.di.Inject;
+import org.apache.maven.api.di.Priority;
+import org.apache.maven.api.di.Provides;
+import org.apache.maven.api.di.Singleton;
+import org.apache.maven.api.plugin.MojoException;
+import org.apache.maven.api.plugin.testing.InjectMojo;
+import org.apache.maven.api.plugin.testing.MojoParameter;
+import org.apache.maven.api.plugin.testing.MojoTest;
+import org.apache.maven.api.plugin.testing.stubs.SessionMock;
+import org.apache.maven.api.services.ArtifactDeployer;
+import org.apache.maven.api.services.ArtifactDeployerRequest;
+import org.apache.maven.api.services.ArtifactManager;
+import org.apache.maven.impl.InternalSession;
+import org.junit.jupiter.api.Test;
+
+import static org.apache.maven.api.plugin.testing.MojoExtension.getBasedir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@MojoTest
+class DeployBundleMojoTest {
+    private static final String LOCAL_REPO = "target/local-repo";
+
+    private static final String BUNDLE = "target/bundle-test/bundle.zip";
+
+    @Inject
+    @SuppressWarnings("unused")
+    private ArtifactDeployer artifactDeployer;
+
+    @Inject
+    @SuppressWarnings("unused")
+    private ArtifactManager artifactManager;
+
+    @Test
+    @InjectMojo(goal = "deploy-bundle")
+    @MojoParameter(name = "bundle", value = "${session.topDirectory}/" + BUNDLE)
+    @MojoParameter(name = "repositoryId", value = "deploy-test")
+    @MojoParameter(name = "url", value = "file://${session.topDirectory}/target/remote-repo/deploy-bundle")
+    void deployBundle(DeployBundleMojo mojo) throws Exception {
+        createBundle(
+                "org/apache/maven/test/bundle-test/1.0/bundle-test-1.0.jar",
+                "org/apache/maven/test/bundle-test/1.0/bundle-test-1.0.jar.sha1",
+                "org/apache/maven/test/bundle-test/1.0/bundle-test-1.0.pom",
+                "org/apache/maven/test/bundle-test/1.0/bundle-test-1.0-sources.jar",
+                "org/apache/maven/test/bundle-test/1.0/bundle-test-1.0-dist.tar.gz",
+                "org/apache/maven/test/bundle-test/maven-metadata.xml");
+
+        doAnswer(iom -> {
+                    ArtifactDeployerRequest request = iom.getArgument(0, ArtifactDeployerRequest.class);
+                    List<String> artifacts = request.getArtifacts().stream()
+                            .map(a -> a.getGroupId() + ":" + a.getArtifactId() + ":" + a.getVersion() + ":"
+                                    + a.getClassifier() + ":" + a.getExtension())
+                            .collect(Collectors.toList());
+                    assertEquals(
+                            List.of(
+                                    "org.apache.maven.test:bundle-test:1.0:dist:tar.gz",
+                                    "org.apache.maven.test:bundle-test:1.0:sources:jar",
+                                    "org.apache.maven.test:bundle-test:1.0::jar",
+                                    "org.apache.maven.test:bundle-test:1.0::pom"),
+                            artifacts);
+                    for (Artifact artifact : request.getArtifacts()) {
+                        Path path = artifactManager.getPath(artifact).orElseThrow();
+                        assertSame(FileSystems.getDefault(), path.getFileSystem());
+                        assertEquals(
+                                path.getFileName().toString(),
+                                new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+                    }
+                    return null;
+                })
+                .when(artifactDeployer)
+                .deploy(any(ArtifactDeployerRequest.class));
+
+        mojo.execute();
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy-bundle")
+    @MojoParameter(name = "bundle", value = "${session.topDirectory}/" + BUNDLE)
+    @MojoParameter(name = "repositoryId", value = "deploy-test")
+    @MojoParameter(name = "url", value = "file://${session.topDirectory}/target/remote-repo/deploy-bundle")
+    void deployBundleOneVersionAtATime(DeployBundleMojo mojo) throws Exception {
+        createBundle(
+                "org/apache/maven/test/bundle-test/1.0/bundle-test-1.0.jar",
+                "org/apache/maven/test/bundle-test/1.0/bundle-test-1.0.pom",
+                "org/apache/maven/test/bundle-test/2.0/bundle-test-2.0.jar",
+                "org/apache/maven/test/bundle-test/2.0/bundle-test-2.0.pom");
+
+        List<List<String>> requests = new ArrayList<>();
+        List<Path> extracted = new ArrayList<>();
+        doAnswer(iom -> {
+                    ArtifactDeployerRequest request = iom.getArgument(0, ArtifactDeployerRequest.class);
+                    requests.add(
+                            request.getArtifacts().stream().map(Artifact::key).collect(Collectors.toList()));
+                    for (Artifact artifact : request.getArtifacts()) {
+                        extracted.add(artifactManager.getPath(artifact).orElseThrow());
+                    }
+                    // the previous version is already deleted
+                    assertEquals(2, extracted.stream().filter(Files::exists).count());
+                    return null;
+                })
+                .when(artifactDeployer)
+                .deploy(any(ArtifactDeployerRequest.class));
+
+        mojo.execute();
+
+        assertEquals(
+                List.of(
+                        List.of(
+                                "org.apache.maven.test:bundle-test:jar:1.0",
+                                "org.apache.maven.test:bundle-test:pom:1.0"),
+                        List.of(
+                                "org.apache.maven.test:bundle-test:jar:2.0",
+                                "org.apache.maven.test:bundle-test:pom:2.0")),
+                requests);
+        assertTrue(extracted.stream().noneMatch(Files::exists));
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy-bundle")
+    @MojoParameter(name = "bundle", value = "${session.topDirectory}/" + BUNDLE)
+    @MojoParameter(name = "repositoryId", value = "deploy-test")
+    @MojoParameter(name = "url", value = "file://${session.topDirectory}/target/remote-repo/deploy-bundle")
+    void deployBundleWithTimestampedSnapshot(DeployBundleMojo mojo) throws Exception {
+        createBundle(
+                "org/apache/maven/test/bundle-test/1.0-SNAPSHOT/bundle-test-1.0-20260101.120000-1.jar",
+                "org/apache/maven/test/bundle-test/1.0-SNAPSHOT/bundle-test-1.0-20260101.120000-1.pom",
+                "org/apache/maven/test/bundle-test/1.0-SNAPSHOT/bundle-test-1.0-20260101.120000-1-sources.jar");
+
+        doAnswer(iom -> {
+                    ArtifactDeployerRequest request = iom.getArgument(0, ArtifactDeployerRequest.class);
+                    assertEquals(
+                            List.of(
+                                    "org.apache.maven.test:bundle-test:jar:sources:1.0-SNAPSHOT",
+                                    "org.apache.maven.test:bundle-test:jar:1.0-SNAPSHOT",
+                                    "org.apache.maven.test:bundle-test:pom:1.0-SNAPSHOT"),
+                            request.getArtifacts().stream().map(Artifact::key).collect(Collectors.toList()));
+                    return null;
+                })
+                .when(artifactDeployer)
+                .deploy(any(ArtifactDeployerRequest.class));
+
+        mojo.execute();
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy-bundle")
+    @MojoParameter(name = "bundle", value = "${session.topDirectory}/" + BUNDLE)
+    @MojoParameter(name = "repositoryId", value = "deploy-test")
+    @MojoParameter(name = "url", value = "file://${session.topDirectory}/target/remote-repo/deploy-bundle")
+    void deployBundleWithTwoSnapshotsOfSameArtifact(DeployBundleMojo mojo) throws Exception {
+        createBundle(
+                "org/apache/maven/test/bundle-test/1.0-SNAPSHOT/bundle-test-1.0-20260101.120000-1.jar",
+                "org/apache/maven/test/bundle-test/1.0-SNAPSHOT/bundle-test-1.0-20260102.120000-2.jar");
+
+        MojoException e = assertThrows(MojoException.class, mojo::execute);
+        assertEquals(
+                "The bundle entries"
+                        + " org/apache/maven/test/bundle-test/1.0-SNAPSHOT/bundle-test-1.0-20260101.120000-1.jar"
+                        + " and org/apache/maven/test/bundle-test/1.0-SNAPSHOT/bundle-test-1.0-20260102.120000-2.jar"
+                        + " are both the artifact org.apache.maven.test:bundle-test:jar:1.0-SNAPSHOT",
+                e.getMessage());
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy-bundle")
+    @MojoParameter(name = "bundle", value = "${session.topDirectory}/" + BUNDLE)
+    @MojoParameter(name = "repositoryId", value = "deploy-test")
+    @MojoParameter(name = "url", value = "file://${session.topDirectory}/target/remote-repo/deploy-bundle")
+    void deployBundleWithInvalidLayout(DeployBundleMojo mojo) throws Exception {
+        createBundle("org/apache/maven/test/bundle-test/1.0/other-1.0.jar");
+
+        MojoException e = assertThrows(MojoException.class, mojo::execute);
+        assertEquals(
+                "The bundle entry org/apache/maven/test/bundle-test/1.0/other-1.0.jar does not follow the Maven 2"
+                        + " repository layout",
+                e.getMessage());
+    }
+
+    private static void createBundle(String... entries) throws IOException {
+        Path bundle = Paths.get(getBasedir(), BUNDLE);
+        Files.createDirectories(bundle.getParent());
+        try (OutputStream os = Files.newOutputStream(bundle);
+                ZipOutputStream zos = new ZipOutputStream(os)) {
+            for (String entry : entries) {
+                zos.putNextEntry(new ZipEntry(entry));
+                zos.write(entry.substring(entry.lastIndexOf('/') + 1).getBytes(StandardCharsets.UTF_8));
+                zos.closeEntry();
+            }
+        }
+    }
+
+    @Provides
+    @Singleton
+    @Priority(10)
+    @SuppressWarnings("unused")
+    private InternalSession createSession() {
+        InternalSession session = SessionMock.getMockSession(LOCAL_REPO);
+        when(session.getTopDirectory()).thenReturn(Paths.get(getBasedir()));
+        return session;
+    }
+}
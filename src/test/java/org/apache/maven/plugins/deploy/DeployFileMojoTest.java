@@ -19,13 +19,17 @@
 package org.apache.maven.plugins.deploy;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.maven.api.Artifact;
 import org.apache.maven.api.Session;
@@ -34,6 +38,7 @@ import org.apache.maven.api.di.Priority;
 import org.apache.maven.api.di.Provides;
 import org.apache.maven.api.di.Singleton;
 import org.apache.maven.api.model.Model;
+import org.apache.maven.api.plugin.MojoException;
 import org.apache.maven.api.plugin.testing.InjectMojo;
 import org.apache.maven.api.plugin.testing.MojoParameter;
 import org.apache.maven.api.plugin.testing.MojoTest;
@@ -49,6 +54,7 @@ import static org.apache.maven.api.plugin.testing.MojoExtension.getBasedir;
 import static org.apache.maven.api.plugin.testing.MojoExtension.getVariableValueFromObject;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
@@ -226,6 +232,238 @@ class DeployFileMojoTest {
         });
     }
 
+    @Test
+    @InjectMojo(goal = "deploy-file")
+    @MojoParameter(name = "groupId", value = "org.apache.maven.test")
+    @MojoParameter(name = "artifactId", value = "maven-deploy-file-test")
+    @MojoParameter(name = "version", value = "1.0")
+    @MojoParameter(name = "packaging", value = "jar")
+    @MojoParameter(
+            name = "file",
+            value = "${session.topDirectory}/src/test/resources/unit/maven-deploy-test-1.0-SNAPSHOT.jar")
+    @MojoParameter(name = "repositoryId", value = "deploy-test")
+    @MojoParameter(name = "url", value = "file://${session.topDirectory}/target/remote-repo/deploy-file")
+    @MojoParameter(name = "attachments", value = "${session.topDirectory}/target/attachments-test/attachments.txt")
+    void deployWithAttachmentsFile(DeployFileMojo mojo) throws Exception {
+        writeAttachments(
+                "# native libraries",
+                "../../src/test/resources/unit/attached-artifact-test-1.0-SNAPSHOT.jar,jar,linux-x86_64",
+                "",
+                "../../src/test/resources/unit/maven-deploy-test.zip,zip,windows-x86_64");
+
+        execute(mojo, request -> {
+            List<Artifact> artifacts = new ArrayList<>(request.getArtifacts());
+            assertEquals(4, artifacts.size());
+            assertEquals("linux-x86_64", artifacts.get(2).getClassifier());
+            assertEquals("jar", artifacts.get(2).getExtension());
+            assertEquals("windows-x86_64", artifacts.get(3).getClassifier());
+            assertEquals("zip", artifacts.get(3).getExtension());
+            assertTrue(Files.isRegularFile(artifactManager.getPath(artifacts.get(3)).orElseThrow()));
+        });
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy-file")
+    @MojoParameter(name = "groupId", value = "org.apache.maven.test")
+    @MojoParameter(name = "artifactId", value = "maven-deploy-file-test")
+    @MojoParameter(name = "version", value = "1.0")
+    @MojoParameter(name = "packaging", value = "jar")
+    @MojoParameter(
+            name = "file",
+            value = "${session.topDirectory}/src/test/resources/unit/maven-deploy-test-1.0-SNAPSHOT.jar")
+    @MojoParameter(name = "repositoryId", value = "deploy-test")
+    @MojoParameter(name = "url", value = "file://${session.topDirectory}/target/remote-repo/deploy-file")
+    @MojoParameter(name = "attachments", value = "${session.topDirectory}/target/attachments-test/attachments.txt")
+    void deployWithInvalidAttachmentsFile(DeployFileMojo mojo) throws Exception {
+        writeAttachments(
+                "missing-linux.so,so,linux-x86_64",
+                "../../src/test/resources/unit/maven-deploy-test.zip,zip,windows-x86_64",
+                "missing-macos.dylib,dylib,macos-aarch64");
+
+        MojoException e = assertThrows(MojoException.class, mojo::execute);
+        assertTrue(e.getMessage().startsWith("2 side artifacts are invalid:"), e.getMessage());
+        assertTrue(e.getMessage().contains("attachments.txt:1 does not exist"), e.getMessage());
+        assertTrue(e.getMessage().contains("attachments.txt:3 does not exist"), e.getMessage());
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy-file")
+    @MojoParameter(name = "repositoryId", value = "deploy-test")
+    @MojoParameter(name = "url", value = "file://${session.topDirectory}/target/remote-repo/deploy-file")
+    @MojoParameter(name = "watchDirectory", value = "${session.topDirectory}/target/watch-test")
+    @MojoParameter(name = "watchQuietPeriod", value = "100")
+    @MojoParameter(name = "watchIdleTimeout", value = "500")
+    void watchDropDirectory(DeployFileMojo mojo) throws Exception {
+        Path directory = Paths.get(getBasedir(), "target/watch-test");
+        if (Files.isDirectory(directory)) {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.collect(Collectors.toList())) {
+                    Files.delete(file);
+                }
+            }
+        }
+        Files.createDirectories(directory);
+        Files.writeString(
+                directory.resolve("firmware-2.1.pom"),
+                "<project><modelVersion>4.0.0</modelVersion><groupId>org.apache.maven.test</groupId>"
+                        + "<artifactId>firmware</artifactId><version>2.1</version>"
+                        + "<packaging>bin</packaging></project>");
+        Files.writeString(directory.resolve("firmware-2.1.bin"), "firmware");
+        Files.writeString(directory.resolve("firmware-2.1-debug.elf"), "symbols");
+        Files.writeString(directory.resolve("firmware-2.1-bin"), "no extension");
+        Files.writeString(directory.resolve("unrelated-1.0.bin"), "unrelated");
+
+        List<ArtifactDeployerRequest> requests = new ArrayList<>();
+        execute(mojo, requests::add);
+
+        assertEquals(1, requests.size());
+        List<String> artifacts = requests.get(0).getArtifacts().stream()
+                .map(a -> a.getArtifactId() + ":" + a.getVersion() + ":" + a.getClassifier() + ":" + a.getExtension())
+                .collect(Collectors.toList());
+        assertEquals(List.of("firmware:2.1:debug:elf", "firmware:2.1::bin", "firmware:2.1::pom"), artifacts);
+        assertEquals(3, Files.readAllLines(directory.resolve(".deploy-ledger")).size());
+
+        // a second run does not deploy anything again
+        requests.clear();
+        mojo.execute();
+        assertTrue(requests.isEmpty());
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy-file")
+    @MojoParameter(name = "repositoryId", value = "deploy-test")
+    @MojoParameter(name = "url", value = "file://${session.topDirectory}/target/remote-repo/deploy-file")
+    @MojoParameter(name = "watchDirectory", value = "${session.topDirectory}/target/watch-hold-test")
+    @MojoParameter(name = "watchQuietPeriod", value = "100")
+    @MojoParameter(name = "watchIdleTimeout", value = "500")
+    void watchHoldsPomBackWhileItsFilesChange(DeployFileMojo mojo) throws Exception {
+        Path directory = Paths.get(getBasedir(), "target/watch-hold-test");
+        if (Files.isDirectory(directory)) {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.collect(Collectors.toList())) {
+                    Files.delete(file);
+                }
+            }
+        }
+        Files.createDirectories(directory);
+        Files.writeString(
+                directory.resolve("firmware-3.0.pom"),
+                "<project><modelVersion>4.0.0</modelVersion><groupId>org.apache.maven.test</groupId>"
+                        + "<artifactId>firmware</artifactId><version>3.0</version>"
+                        + "<packaging>bin</packaging></project>");
+        Path bin = Files.writeString(directory.resolve("firmware-3.0.bin"), "firmware");
+        // keep writing the binary well beyond the quiet period of the POM
+        Thread writer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 20; i++) {
+                    Thread.sleep(30);
+                    Files.writeString(bin, "firmware", StandardOpenOption.APPEND);
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        writer.start();
+
+        List<ArtifactDeployerRequest> requests = new ArrayList<>();
+        execute(mojo, requests::add);
+        writer.join();
+
+        assertEquals(1, requests.size());
+        assertEquals(
+                List.of("firmware:3.0::bin", "firmware:3.0::pom"),
+                requests.get(0).getArtifacts().stream()
+                        .map(a -> a.getArtifactId() + ":" + a.getVersion() + ":" + a.getClassifier() + ":"
+                                + a.getExtension())
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy-file")
+    @MojoParameter(name = "repositoryId", value = "deploy-test")
+    @MojoParameter(name = "url", value = "file://${session.topDirectory}/target/remote-repo/deploy-file")
+    @MojoParameter(name = "watchDirectory", value = "${session.topDirectory}/target/watch-batch-test")
+    @MojoParameter(name = "watchQuietPeriod", value = "100")
+    @MojoParameter(name = "watchIdleTimeout", value = "500")
+    @MojoParameter(name = "watchBatchSize", value = "1")
+    void watchKeepsVersionsOfSameArtifactTogether(DeployFileMojo mojo) throws Exception {
+        Path directory = Paths.get(getBasedir(), "target/watch-batch-test");
+        if (Files.isDirectory(directory)) {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.collect(Collectors.toList())) {
+                    Files.delete(file);
+                }
+            }
+        }
+        Files.createDirectories(directory);
+        for (String gav : List.of("firmware:2.1", "firmware:2.2", "tool:1.0")) {
+            String[] tokens = gav.split(":");
+            Files.writeString(
+                    directory.resolve(tokens[0] + "-" + tokens[1] + ".pom"),
+                    "<project><modelVersion>4.0.0</modelVersion><groupId>org.apache.maven.test</groupId>"
+                            + "<artifactId>" + tokens[0] + "</artifactId><version>" + tokens[1] + "</version>"
+                            + "<packaging>pom</packaging></project>");
+        }
+
+        List<ArtifactDeployerRequest> requests = new ArrayList<>();
+        execute(mojo, requests::add);
+
+        assertEquals(
+                List.of(List.of("firmware:2.1", "firmware:2.2"), List.of("tool:1.0")),
+                requests.stream()
+                        .map(r -> r.getArtifacts().stream()
+                                .map(a -> a.getArtifactId() + ":" + a.getVersion())
+                                .collect(Collectors.toList()))
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy-file")
+    @MojoParameter(name = "repositoryId", value = "deploy-test")
+    @MojoParameter(name = "url", value = "file://${session.topDirectory}/target/remote-repo/deploy-file")
+    @MojoParameter(name = "watchDirectory", value = "${session.topDirectory}/target/watch-failure-test")
+    @MojoParameter(name = "watchQuietPeriod", value = "100")
+    @MojoParameter(name = "watchIdleTimeout", value = "500")
+    @MojoParameter(name = "watchBatchSize", value = "1")
+    void watchFailsWhenAUnitFailedToDeploy(DeployFileMojo mojo) throws Exception {
+        Path directory = Paths.get(getBasedir(), "target/watch-failure-test");
+        if (Files.isDirectory(directory)) {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.collect(Collectors.toList())) {
+                    Files.delete(file);
+                }
+            }
+        }
+        Files.createDirectories(directory);
+        for (String artifactId : List.of("firmware", "tool")) {
+            Files.writeString(
+                    directory.resolve(artifactId + "-1.0.pom"),
+                    "<project><modelVersion>4.0.0</modelVersion><groupId>org.apache.maven.test</groupId>"
+                            + "<artifactId>" + artifactId + "</artifactId><version>1.0</version>"
+                            + "<packaging>pom</packaging></project>");
+        }
+
+        List<String> deployed = new ArrayList<>();
+        MojoException e = assertThrows(
+                MojoException.class,
+                () -> execute(mojo, request -> {
+                    String artifactId = request.getArtifacts().iterator().next().getArtifactId();
+                    if ("tool".equals(artifactId)) {
+                        throw new IllegalStateException("409 Conflict");
+                    }
+                    deployed.add(artifactId);
+                }));
+
+        assertEquals("1 units dropped into " + directory + " failed to deploy, see the errors above", e.getMessage());
+        assertEquals(List.of("firmware"), deployed);
+    }
+
+    private static void writeAttachments(String... lines) throws IOException {
+        Path attachments = Paths.get(getBasedir(), "target/attachments-test/attachments.txt");
+        Files.createDirectories(attachments.getParent());
+        Files.write(attachments, List.of(lines));
+    }
+
     private ArtifactDeployerRequest execute(DeployFileMojo mojo) {
         AtomicReference<ArtifactDeployerRequest> holder = new AtomicReference<>();
         execute(mojo, holder::set);
@@ -19,11 +19,24 @@
 package org.apache.maven.plugins.deploy;
 
 import java.io.File;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.maven.api.Artifact;
 import org.apache.maven.api.ProducedArtifact;
@@ -38,6 +51,8 @@ import org.apache.maven.api.plugin.MojoException;
 import org.apache.maven.api.plugin.testing.InjectMojo;
 import org.apache.maven.api.plugin.testing.MojoParameter;
 import org.apache.maven.api.plugin.testing.MojoTest;
+import org.apache.maven.api.plugin.testing.stubs.MojoExecutionStub;
+import org.apache.maven.api.plugin.testing.stubs.PluginStub;
 import org.apache.maven.api.plugin.testing.stubs.ProducedArtifactStub;
 import org.apache.maven.api.plugin.testing.stubs.ProjectStub;
 import org.apache.maven.api.plugin.testing.stubs.SessionMock;
@@ -46,9 +61,12 @@ import org.apache.maven.api.services.ArtifactDeployerRequest;
 import org.apache.maven.api.services.ArtifactManager;
 import org.apache.maven.api.services.ProjectManager;
 import org.apache.maven.api.services.RepositoryFactory;
+import org.apache.maven.api.services.Transport;
+import org.apache.maven.api.services.TransportProvider;
 import org.apache.maven.impl.InternalSession;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -58,11 +76,21 @@ import static org.apache.maven.api.plugin.testing.MojoExtension.setVariableValue
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -90,6 +118,9 @@ class DeployMojoTest {
     @SuppressWarnings("unused")
     private ArtifactDeployer artifactDeployer;
 
+    @TempDir
+    Path temporaryDirectory;
+
     @Test
     @InjectMojo(goal = "deploy")
     void deployTestEnvironment(DeployMojo mojo) {
@@ -190,6 +221,44 @@ class DeployMojoTest {
         assertEquals("http://localhost", repository.getUrl());
     }
 
+    @Test
+    @InjectMojo(goal = "deploy")
+    void deploymentRepositoryIsSharedWithinSession(DeployMojo mojo) throws Exception {
+        setVariableValueToObject(mojo, "altDeploymentRepository", "altDeploymentRepository::http://localhost");
+        RemoteRepository repository = mojo.getDeploymentRepository(true);
+
+        setVariableValueToObject(mojo, "altDeploymentRepository", "altDeploymentRepository::default::http://localhost");
+        assertSame(repository, mojo.getDeploymentRepository(true));
+        assertSame(
+                repository,
+                mojo.createDeploymentArtifactRepository("altDeploymentRepository", "http://localhost", true));
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy")
+    void snapshotAndReleaseDeploymentRepositoriesAreCachedApart(DeployMojo mojo) throws Exception {
+        setVariableValueToObject(mojo, "altDeploymentRepository", "altDeploymentRepository::http://localhost");
+
+        RemoteRepository snapshots = mojo.getDeploymentRepository(true);
+        RemoteRepository releases = mojo.getDeploymentRepository(false);
+        assertNotSame(snapshots, releases);
+        assertSame(snapshots, mojo.getDeploymentRepository(true));
+        assertSame(releases, mojo.getDeploymentRepository(false));
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy")
+    void invalidAltDeploymentRepository(DeployMojo mojo) throws Exception {
+        setVariableValueToObject(mojo, "altDeploymentRepository", "altDeploymentRepository");
+
+        MojoException e = assertThrows(
+                MojoException.class,
+                () -> mojo.getDeploymentRepository(true),
+                "Should throw: Invalid syntax for repository.");
+        assertEquals("Invalid syntax for repository.", e.getMessage());
+        assertEquals("Invalid syntax for alternative repository. Use \"id::url\".", e.getLongMessage());
+    }
+
     @Test
     @InjectMojo(goal = "deploy")
     void legacyAltDeploymentRepositoryWithLegacyLayout(DeployMojo mojo) throws Exception {
@@ -268,6 +337,627 @@ class DeployMojoTest {
         assertEquals("http://localhost", repository.getUrl());
     }
 
+    @Test
+    @InjectMojo(goal = "deploy")
+    @MojoParameter(name = "deployAtEnd", value = "false")
+    @MojoParameter(name = "additionalDeploymentRepositories", value = "mirror::file:///tmp/mirror")
+    void deployToAdditionalRepositories(DeployMojo mojo) throws Exception {
+        Project project = (Project) getVariableValueFromObject(mojo, "project");
+        artifactManager.setPath(
+                project.getMainArtifact().get(),
+                Paths.get(getBasedir(), "target/test-classes/unit/maven-deploy-test-1.0-SNAPSHOT.jar"));
+
+        ArgumentCaptor<ArtifactDeployerRequest> requestCaptor = ArgumentCaptor.forClass(ArtifactDeployerRequest.class);
+        doNothing().when(artifactDeployer).deploy(requestCaptor.capture());
+
+        mojo.execute();
+
+        List<ArtifactDeployerRequest> requests = requestCaptor.getAllValues();
+        assertEquals(
+                List.of("mirror", "remote-repo"),
+                requests.stream().map(r -> r.getRepository().getId()).sorted().collect(Collectors.toList()));
+        for (ArtifactDeployerRequest request : requests) {
+            assertEquals(2, request.getArtifacts().size());
+        }
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy")
+    @MojoParameter(name = "deployAtEnd", value = "false")
+    void rejectAdditionalRepositoryAlreadyDeployedTo(DeployMojo mojo) throws Exception {
+        Project project = (Project) getVariableValueFromObject(mojo, "project");
+        artifactManager.setPath(
+                project.getMainArtifact().get(),
+                Paths.get(getBasedir(), "target/test-classes/unit/maven-deploy-test-1.0-SNAPSHOT.jar"));
+        String url = Paths.get(getBasedir()).toUri().toString();
+        setVariableValueToObject(mojo, "additionalDeploymentRepositories", "remote-repo::" + url);
+
+        MojoException e = assertThrows(MojoException.class, mojo::execute);
+        assertEquals(
+                "The additional deployment repository remote-repo (" + url
+                        + ") is already a deployment repository of the project",
+                e.getMessage());
+        verify(artifactDeployer, never()).deploy(any(ArtifactDeployerRequest.class));
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy")
+    @MojoParameter(name = "deployAtEnd", value = "false")
+    @MojoParameter(name = "additionalDeploymentRepositories", value = "mirror::file:///tmp/mirror")
+    @MojoParameter(name = "requireAllDeploymentRepositories", value = "false")
+    void deployTolerantToAdditionalRepositoryFailure(DeployMojo mojo) throws Exception {
+        Project project = (Project) getVariableValueFromObject(mojo, "project");
+        artifactManager.setPath(
+                project.getMainArtifact().get(),
+                Paths.get(getBasedir(), "target/test-classes/unit/maven-deploy-test-1.0-SNAPSHOT.jar"));
+
+        doAnswer(iom -> {
+                    ArtifactDeployerRequest request = iom.getArgument(0, ArtifactDeployerRequest.class);
+                    if ("mirror".equals(request.getRepository().getId())) {
+                        throw new MojoException("mirror unavailable");
+                    }
+                    return null;
+                })
+                .when(artifactDeployer)
+                .deploy(any(ArtifactDeployerRequest.class));
+
+        mojo.execute();
+
+        setVariableValueToObject(mojo, "requireAllDeploymentRepositories", true);
+        MojoException e = assertThrows(MojoException.class, mojo::execute);
+        assertEquals("mirror unavailable", e.getMessage());
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy")
+    @MojoParameter(name = "deployAtEnd", value = "false")
+    void deployWithRoutes(DeployMojo mojo) throws Exception {
+        Project project = (Project) getVariableValueFromObject(mojo, "project");
+        artifactManager.setPath(
+                project.getMainArtifact().get(),
+                Paths.get(getBasedir(), "target/test-classes/unit/maven-deploy-test-1.0-SNAPSHOT.jar"));
+        DeploymentRoute tooLarge = new DeploymentRoute();
+        tooLarge.setExtension("jar");
+        tooLarge.setMinSize(Long.MAX_VALUE);
+        tooLarge.setRepository("unused::file:///tmp/unused");
+        DeploymentRoute jars = new DeploymentRoute();
+        jars.setExtension("jar");
+        jars.setRepository("blobs::file:///tmp/blobs");
+        setVariableValueToObject(mojo, "routes", List.of(tooLarge, jars));
+
+        ArgumentCaptor<ArtifactDeployerRequest> requestCaptor = ArgumentCaptor.forClass(ArtifactDeployerRequest.class);
+        doNothing().when(artifactDeployer).deploy(requestCaptor.capture());
+
+        mojo.execute();
+
+        List<String> requests = requestCaptor.getAllValues().stream()
+                .map(r -> r.getRepository().getId() + "="
+                        + r.getArtifacts().stream().map(Artifact::key).collect(Collectors.joining(",")))
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(
+                List.of(
+                        "blobs=org.apache.maven.test:maven-deploy-test:jar:1.0-SNAPSHOT",
+                        "remote-repo=org.apache.maven.test:maven-deploy-test:pom:1.0-SNAPSHOT"),
+                requests);
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy")
+    void writeDeploymentPlan(DeployMojo mojo) throws Exception {
+        Project project = (Project) getVariableValueFromObject(mojo, "project");
+        artifactManager.setPath(
+                project.getMainArtifact().get(),
+                Paths.get(getBasedir(), "target/test-classes/unit/maven-deploy-test-1.0-SNAPSHOT.jar"));
+        Path planFile = temporaryDirectory.resolve("project.plan");
+        setVariableValueToObject(mojo, "deploymentPlan", planFile);
+        when(session.getProjects()).thenReturn(List.of(project));
+        when(session.getPluginContext(project)).thenReturn(new HashMap<>());
+
+        assertNull(execute(mojo));
+
+        DeploymentPlan plan = DeploymentPlan.read(planFile);
+        assertEquals(1, plan.getTargets().size());
+        assertEquals("remote-repo", plan.getTargets().get(0).repositoryId());
+        assertEquals(
+                List.of(
+                        "org.apache.maven.test:maven-deploy-test:pom:1.0-SNAPSHOT",
+                        "org.apache.maven.test:maven-deploy-test:jar:1.0-SNAPSHOT"),
+                plan.getTargets().get(0).entries().stream()
+                        .map(DeploymentPlan.Entry::key)
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy")
+    @MojoParameter(name = "linkFiles", value = "true")
+    void stageWithLinkedFiles(DeployMojo mojo) throws Exception {
+        Project project = (Project) getVariableValueFromObject(mojo, "project");
+        Path jar = Paths.get(getBasedir(), "target/test-classes/unit/maven-deploy-test-1.0-SNAPSHOT.jar");
+        artifactManager.setPath(project.getMainArtifact().get(), jar);
+        Path stagingDirectory = Paths.get(getBasedir(), "target/deploy-link-test");
+        setVariableValueToObject(mojo, "stagingDirectory", stagingDirectory);
+        when(session.getProjects()).thenReturn(List.of(project));
+        when(session.getPluginContext(project)).thenReturn(new HashMap<>());
+
+        assertNull(execute(mojo));
+
+        DeploymentPlan plan = DeploymentPlan.read(stagingDirectory.resolve(DeployStagedMojo.PLAN_FILE_NAME));
+        DeploymentPlan.Entry entry = plan.getTargets().get(0).entries().get(1);
+        assertEquals("org.apache.maven.test:maven-deploy-test:jar:1.0-SNAPSHOT", entry.key());
+        assertTrue(entry.path().startsWith(stagingDirectory));
+        assertTrue(Files.isSameFile(jar, entry.path()));
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy")
+    void queueToOutboxWhenOffline(DeployMojo mojo) throws Exception {
+        Project project = (Project) getVariableValueFromObject(mojo, "project");
+        artifactManager.setPath(
+                project.getMainArtifact().get(),
+                Paths.get(getBasedir(), "target/test-classes/unit/maven-deploy-test-1.0-SNAPSHOT.jar"));
+        Path outbox = Paths.get(getBasedir(), "target/deploy-outbox-queue-test");
+        if (Files.exists(outbox)) {
+            try (Stream<Path> stream = Files.walk(outbox)) {
+                for (Path path : stream.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                    Files.delete(path);
+                }
+            }
+        }
+        setVariableValueToObject(mojo, "outbox", outbox);
+        setVariableValueToObject(mojo, "offline", true);
+        when(session.getProjects()).thenReturn(List.of(project));
+        when(session.getPluginContext(project)).thenReturn(new HashMap<>());
+
+        assertNull(execute(mojo));
+
+        List<Path> entries;
+        try (Stream<Path> stream = Files.list(outbox)) {
+            entries = stream.collect(Collectors.toList());
+        }
+        assertEquals(1, entries.size());
+        DeploymentPlan plan = DeploymentPlan.read(entries.get(0).resolve(DeployStagedMojo.PLAN_FILE_NAME));
+        assertEquals(
+                List.of(
+                        "org.apache.maven.test:maven-deploy-test:pom:1.0-SNAPSHOT",
+                        "org.apache.maven.test:maven-deploy-test:jar:1.0-SNAPSHOT"),
+                plan.getTargets().get(0).entries().stream()
+                        .map(DeploymentPlan.Entry::key)
+                        .collect(Collectors.toList()));
+        assertTrue(plan.getTargets().get(0).entries().stream()
+                .allMatch(e -> e.path().startsWith(entries.get(0))));
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy")
+    @MojoParameter(name = "shardCount", value = "2")
+    void deploySharded(DeployMojo mojo) throws Exception {
+        Project project = (Project) getVariableValueFromObject(mojo, "project");
+        projectManager.attachArtifact(
+                project,
+                new ProducedArtifactStub("org.apache.maven.test", "attached-artifact-test", "", "1.0-SNAPSHOT", "jar"),
+                Paths.get(getBasedir(), "target/test-classes/unit/attached-artifact-test-1.0-SNAPSHOT.jar"));
+        artifactManager.setPath(
+                project.getMainArtifact().get(),
+                Paths.get(getBasedir(), "target/test-classes/unit/maven-deploy-test-1.0-SNAPSHOT.jar"));
+        when(session.getProjects()).thenReturn(List.of(project));
+
+        List<String> deployed = new ArrayList<>();
+        for (int shard = 0; shard < 2; shard++) {
+            when(session.getPluginContext(project)).thenReturn(new HashMap<>());
+            setVariableValueToObject(mojo, "shardIndex", shard);
+            ArtifactDeployerRequest request = execute(mojo);
+            List<String> keys = request.getArtifacts().stream().map(Artifact::key).collect(Collectors.toList());
+            assertFalse(keys.isEmpty());
+            assertEquals(1, keys.stream().map(k -> k.split(":")[1]).distinct().count());
+            deployed.addAll(keys);
+        }
+        assertEquals(
+                List.of(
+                        "org.apache.maven.test:attached-artifact-test:jar:1.0-SNAPSHOT",
+                        "org.apache.maven.test:maven-deploy-test:jar:1.0-SNAPSHOT",
+                        "org.apache.maven.test:maven-deploy-test:pom:1.0-SNAPSHOT"),
+                deployed.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy")
+    @MojoParameter(name = "deployAtEnd", value = "false")
+    @MojoParameter(name = "deployLanes", value = "2")
+    void deployWithLanes(DeployMojo mojo) throws Exception {
+        Project project = (Project) getVariableValueFromObject(mojo, "project");
+        projectManager.attachArtifact(
+                project,
+                new ProducedArtifactStub(
+                        "org.apache.maven.test", "maven-deploy-test", "sources", "1.0-SNAPSHOT", "jar"),
+                Paths.get(getBasedir(), "target/test-classes/unit/attached-artifact-test-1.0-SNAPSHOT.jar"));
+        projectManager.attachArtifact(
+                project,
+                new ProducedArtifactStub("org.apache.maven.test", "attached-artifact-test", "", "1.0-SNAPSHOT", "jar"),
+                Paths.get(getBasedir(), "target/test-classes/unit/attached-artifact-test-1.0-SNAPSHOT.jar"));
+        artifactManager.setPath(
+                project.getMainArtifact().get(),
+                Paths.get(getBasedir(), "target/test-classes/unit/maven-deploy-test-1.0-SNAPSHOT.jar"));
+
+        ArgumentCaptor<ArtifactDeployerRequest> requestCaptor = ArgumentCaptor.forClass(ArtifactDeployerRequest.class);
+        doNothing().when(artifactDeployer).deploy(requestCaptor.capture());
+
+        mojo.execute();
+
+        List<List<String>> requests = requestCaptor.getAllValues().stream()
+                .map(r -> r.getArtifacts().stream().map(Artifact::key).collect(Collectors.toList()))
+                .sorted(Comparator.comparing(List::size))
+                .collect(Collectors.toList());
+        assertEquals(2, requests.size());
+        assertEquals(List.of("org.apache.maven.test:attached-artifact-test:jar:1.0-SNAPSHOT"), requests.get(0));
+        assertEquals(3, requests.get(1).size());
+        assertEquals("org.apache.maven.test:maven-deploy-test:pom:1.0-SNAPSHOT", requests.get(1).get(2));
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy")
+    @MojoParameter(name = "deployAtEnd", value = "false")
+    @MojoParameter(name = "twoPhasePublication", value = "true")
+    void deployInTwoPhases(DeployMojo mojo) throws Exception {
+        ProjectStub project = (ProjectStub) getVariableValueFromObject(mojo, "project");
+        project.setVersion("1.0");
+        project.setMainArtifact(
+                new ProducedArtifactStub("org.apache.maven.test", "maven-deploy-test", "", "1.0", "jar"));
+        Path jar = Paths.get(getBasedir(), "target/test-classes/unit/maven-deploy-test-1.0-SNAPSHOT.jar");
+        artifactManager.setPath(project.getMainArtifact().get(), jar);
+
+        Transport transport = mock(Transport.class);
+        TransportProvider transportProvider = mock(TransportProvider.class);
+        when(transportProvider.transport(any(), any())).thenReturn(transport);
+        when(session.getService(TransportProvider.class)).thenReturn(transportProvider);
+        ArgumentCaptor<ArtifactDeployerRequest> requestCaptor = ArgumentCaptor.forClass(ArtifactDeployerRequest.class);
+        doNothing().when(artifactDeployer).deploy(requestCaptor.capture());
+
+        mojo.execute();
+
+        String path = "org/apache/maven/test/maven-deploy-test/1.0/maven-deploy-test-1.0.jar";
+        verify(transport).put(jar, URI.create(path));
+        verify(transport).putString(Checksums.calculate(jar, Checksums.SHA_1), URI.create(path + ".sha1"));
+        verify(transport).putString(Checksums.calculate(jar, "MD5"), URI.create(path + ".md5"));
+        assertEquals(
+                List.of(List.of("org.apache.maven.test:maven-deploy-test:pom:1.0")),
+                requestCaptor.getAllValues().stream()
+                        .map(r -> r.getArtifacts().stream().map(Artifact::key).collect(Collectors.toList()))
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy")
+    @MojoParameter(name = "deployAtEnd", value = "false")
+    @MojoParameter(name = "twoPhasePublication", value = "true")
+    void deployInTwoPhasesKeepsSnapshotTogether(DeployMojo mojo) throws Exception {
+        Project project = (Project) getVariableValueFromObject(mojo, "project");
+        artifactManager.setPath(
+                project.getMainArtifact().get(),
+                Paths.get(getBasedir(), "target/test-classes/unit/maven-deploy-test-1.0-SNAPSHOT.jar"));
+        when(session.isVersionSnapshot("1.0-SNAPSHOT")).thenReturn(true);
+
+        ArgumentCaptor<ArtifactDeployerRequest> requestCaptor = ArgumentCaptor.forClass(ArtifactDeployerRequest.class);
+        doNothing().when(artifactDeployer).deploy(requestCaptor.capture());
+
+        mojo.execute();
+
+        assertEquals(
+                List.of(List.of(
+                        "org.apache.maven.test:maven-deploy-test:pom:1.0-SNAPSHOT",
+                        "org.apache.maven.test:maven-deploy-test:jar:1.0-SNAPSHOT")),
+                requestCaptor.getAllValues().stream()
+                        .map(r -> r.getArtifacts().stream().map(Artifact::key).collect(Collectors.toList()))
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy")
+    @MojoParameter(name = "deployAtEnd", value = "false")
+    @MojoParameter(name = "preflight", value = "true")
+    @MojoParameter(name = "preflightProbe", value = ".preflight")
+    void preflightFailsBeforeDeploying(DeployMojo mojo) throws Exception {
+        Project project = (Project) getVariableValueFromObject(mojo, "project");
+        artifactManager.setPath(
+                project.getMainArtifact().get(),
+                Paths.get(getBasedir(), "target/test-classes/unit/maven-deploy-test-1.0-SNAPSHOT.jar"));
+
+        Transport transport = mock(Transport.class);
+        doThrow(new IllegalStateException("403 Forbidden")).when(transport).putString(anyString(), any(URI.class));
+        TransportProvider transportProvider = mock(TransportProvider.class);
+        when(transportProvider.transport(any(), any())).thenReturn(transport);
+        when(session.getService(TransportProvider.class)).thenReturn(transportProvider);
+
+        MojoException e = assertThrows(MojoException.class, mojo::execute);
+        assertEquals(
+                "Pre-flight checks failed, nothing has been deployed:\n"
+                        + "The repository remote-repo (" + Paths.get(getBasedir()).toUri() + ") cannot be written to:"
+                        + " 403 Forbidden",
+                e.getMessage());
+        verify(transport).putString(anyString(), eq(URI.create(".preflight")));
+        verify(artifactDeployer, never()).deploy(any(ArtifactDeployerRequest.class));
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy")
+    @MojoParameter(name = "deployAtEnd", value = "true")
+    @MojoParameter(name = "warmTransports", value = "true")
+    @MojoParameter(name = "altDeploymentRepository", value = "internal::http://localhost")
+    void warmTransportsWhenDeferred(DeployMojo mojo) throws Exception {
+        Project project = (Project) getVariableValueFromObject(mojo, "project");
+        artifactManager.setPath(
+                project.getMainArtifact().get(),
+                Paths.get(getBasedir(), "target/test-classes/unit/maven-deploy-test-1.0-SNAPSHOT.jar"));
+
+        Transport transport = mock(Transport.class);
+        TransportProvider transportProvider = mock(TransportProvider.class);
+        when(transportProvider.transport(any(), any())).thenReturn(transport);
+        when(session.getService(TransportProvider.class)).thenReturn(transportProvider);
+
+        mojo.execute();
+
+        verify(transport, timeout(5000)).getString(URI.create(".maven-deploy-plugin-probe"));
+        verify(transport, timeout(5000)).close();
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy")
+    @MojoParameter(name = "deployAtEnd", value = "false")
+    @MojoParameter(name = "verifyDeployment", value = "true")
+    @MojoParameter(name = "verifyTimeout", value = "1")
+    void verifyDeployment(DeployMojo mojo) throws Exception {
+        Project project = (Project) getVariableValueFromObject(mojo, "project");
+        Path jar = Paths.get(getBasedir(), "target/test-classes/unit/maven-deploy-test-1.0-SNAPSHOT.jar");
+        artifactManager.setPath(project.getMainArtifact().get(), jar);
+
+        String versionPath = "org/apache/maven/test/maven-deploy-test/1.0-SNAPSHOT/";
+        String metadata = "<metadata><versioning><snapshotVersions>"
+                + "<snapshotVersion><extension>jar</extension><value>1.0-20240101.000000-1</value></snapshotVersion>"
+                + "<snapshotVersion><extension>pom</extension><value>1.0-20240101.000000-1</value></snapshotVersion>"
+                + "</snapshotVersions></versioning></metadata>";
+        Transport transport = mock(Transport.class);
+        when(transport.getString(any(URI.class))).thenReturn(Optional.empty());
+        when(transport.getString(URI.create(versionPath + "maven-metadata.xml"))).thenReturn(Optional.of(metadata));
+        when(transport.getString(URI.create(versionPath + "maven-deploy-test-1.0-20240101.000000-1.jar.sha1")))
+                .thenReturn(Optional.of(Checksums.calculate(jar, Checksums.SHA_1) + "  maven-deploy-test.jar"));
+        when(transport.getString(URI.create(versionPath + "maven-deploy-test-1.0-20240101.000000-1.pom.sha1")))
+                .thenReturn(Optional.of("0000000000000000000000000000000000000000"));
+        TransportProvider transportProvider = mock(TransportProvider.class);
+        when(transportProvider.transport(any(), any())).thenReturn(transport);
+        when(session.getService(TransportProvider.class)).thenReturn(transportProvider);
+        when(session.isVersionSnapshot("1.0-SNAPSHOT")).thenReturn(true);
+
+        MojoException e = assertThrows(MojoException.class, mojo::execute);
+        assertTrue(
+                e.getMessage()
+                        .startsWith("1 deployed artifacts failed verification:\nChecksum mismatch for "
+                                + "org.apache.maven.test:maven-deploy-test:pom:1.0-SNAPSHOT"),
+                e.getMessage());
+        verify(artifactDeployer).deploy(any(ArtifactDeployerRequest.class));
+        verify(transport, never()).get(any(URI.class), any(Path.class));
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy")
+    @MojoParameter(name = "deployAtEnd", value = "false")
+    @MojoParameter(name = "verifyDeployment", value = "true")
+    @MojoParameter(name = "verifyTimeout", value = "1")
+    void verifyDeploymentWithSignature(DeployMojo mojo) throws Exception {
+        Project project = (Project) getVariableValueFromObject(mojo, "project");
+        Path jar = Paths.get(getBasedir(), "target/test-classes/unit/maven-deploy-test-1.0-SNAPSHOT.jar");
+        artifactManager.setPath(project.getMainArtifact().get(), jar);
+        Path signature = Files.writeString(temporaryDirectory.resolve("maven-deploy-test.jar.asc"), "signature");
+        projectManager.attachArtifact(
+                project,
+                new ProducedArtifactStub("org.apache.maven.test", "maven-deploy-test", "", "1.0-SNAPSHOT", "jar.asc"),
+                signature);
+        Path pom = project.getPomPath();
+
+        // no checksum is published for the signature, only the signature itself
+        String versionPath = "org/apache/maven/test/maven-deploy-test/1.0-SNAPSHOT/maven-deploy-test-1.0-SNAPSHOT";
+        Transport transport = mock(Transport.class);
+        when(transport.getString(any(URI.class))).thenReturn(Optional.empty());
+        when(transport.getString(URI.create(versionPath + ".jar.sha1")))
+                .thenReturn(Optional.of(Checksums.calculate(jar, Checksums.SHA_1)));
+        when(transport.getString(URI.create(versionPath + ".pom.sha1")))
+                .thenReturn(Optional.of(Checksums.calculate(pom, Checksums.SHA_1)));
+        when(transport.getBytes(URI.create(versionPath + ".jar.asc")))
+                .thenReturn(Optional.of("signature".getBytes(StandardCharsets.UTF_8)));
+        TransportProvider transportProvider = mock(TransportProvider.class);
+        when(transportProvider.transport(any(), any())).thenReturn(transport);
+        when(session.getService(TransportProvider.class)).thenReturn(transportProvider);
+
+        mojo.execute();
+
+        verify(transport, never()).getString(URI.create(versionPath + ".jar.asc.sha1"));
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy")
+    @MojoParameter(name = "deployAtEnd", value = "false")
+    @MojoParameter(name = "reconcileMetadata", value = "true")
+    void reconcileMetadataOverwrittenByConcurrentDeployers(DeployMojo mojo) throws Exception {
+        Project project = (Project) getVariableValueFromObject(mojo, "project");
+        artifactManager.setPath(
+                project.getMainArtifact().get(),
+                Paths.get(getBasedir(), "target/test-classes/unit/maven-deploy-test-1.0-SNAPSHOT.jar"));
+
+        // an in-memory repository where another deployer overwrites the metadata right after our first repair
+        String metadataPath = "org/apache/maven/test/maven-deploy-test/maven-metadata.xml";
+        Map<String, String> repository = new ConcurrentHashMap<>();
+        repository.put(metadataPath, metadata("0.9"));
+        AtomicInteger writes = new AtomicInteger();
+        Transport transport = mock(Transport.class);
+        when(transport.getString(any(URI.class)))
+                .thenAnswer(iom -> Optional.ofNullable(repository.get(iom.getArgument(0, URI.class).toString())));
+        doAnswer(iom -> {
+                    String path = iom.getArgument(1, URI.class).toString();
+                    repository.put(path, new String(iom.getArgument(0, byte[].class), StandardCharsets.UTF_8));
+                    if (writes.getAndIncrement() == 0) {
+                        repository.put(path, metadata("0.9", "1.1"));
+                    }
+                    return null;
+                })
+                .when(transport)
+                .putBytes(any(byte[].class), any(URI.class));
+        doAnswer(iom -> repository.put(iom.getArgument(1, URI.class).toString(), iom.getArgument(0, String.class)))
+                .when(transport)
+                .putString(anyString(), any(URI.class));
+        TransportProvider transportProvider = mock(TransportProvider.class);
+        when(transportProvider.transport(any(), any())).thenReturn(transport);
+        when(session.getService(TransportProvider.class)).thenReturn(transportProvider);
+
+        mojo.execute();
+
+        String metadata = repository.get(metadataPath);
+        assertEquals(2, writes.get());
+        for (String version : List.of("0.9", "1.1", "1.0-SNAPSHOT")) {
+            assertTrue(metadata.contains("<version>" + version + "</version>"), metadata);
+        }
+        assertEquals(
+                Checksums.calculate(metadata.getBytes(StandardCharsets.UTF_8), Checksums.SHA_1),
+                repository.get(metadataPath + ".sha1"));
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy")
+    @MojoParameter(name = "deployAtEnd", value = "false")
+    @MojoParameter(name = "reconcileMetadata", value = "true")
+    void reconcileMetadataRecomputesLatestAndRelease(DeployMojo mojo) throws Exception {
+        Project project = (Project) getVariableValueFromObject(mojo, "project");
+        artifactManager.setPath(
+                project.getMainArtifact().get(),
+                Paths.get(getBasedir(), "target/test-classes/unit/maven-deploy-test-1.0-SNAPSHOT.jar"));
+        when(session.isVersionSnapshot(anyString()))
+                .thenAnswer(iom -> iom.getArgument(0, String.class).endsWith("-SNAPSHOT"));
+
+        // the concurrent deployer left unsorted versions, pointing latest and release at an older version
+        String metadataPath = "org/apache/maven/test/maven-deploy-test/maven-metadata.xml";
+        Map<String, String> repository = new ConcurrentHashMap<>();
+        repository.put(
+                metadataPath,
+                metadata("0.10", "0.9").replace("<versions>", "<latest>0.9</latest><release>0.9</release><versions>"));
+        Transport transport = mock(Transport.class);
+        when(transport.getString(any(URI.class)))
+                .thenAnswer(iom -> Optional.ofNullable(repository.get(iom.getArgument(0, URI.class).toString())));
+        doAnswer(iom -> repository.put(
+                        iom.getArgument(1, URI.class).toString(),
+                        new String(iom.getArgument(0, byte[].class), StandardCharsets.UTF_8)))
+                .when(transport)
+                .putBytes(any(byte[].class), any(URI.class));
+        TransportProvider transportProvider = mock(TransportProvider.class);
+        when(transportProvider.transport(any(), any())).thenReturn(transport);
+        when(session.getService(TransportProvider.class)).thenReturn(transportProvider);
+
+        mojo.execute();
+
+        String metadata = repository.get(metadataPath);
+        assertTrue(
+                metadata.contains("<latest>1.0-SNAPSHOT</latest><release>0.10</release><versions><version>0.9</version>"
+                        + "<version>0.10</version><version>1.0-SNAPSHOT</version></versions>"),
+                metadata);
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy")
+    @MojoParameter(name = "deployAtEnd", value = "false")
+    @MojoParameter(name = "reconcileMetadata", value = "true")
+    @MojoParameter(name = "altDeploymentRepository", value = "internal::http://localhost")
+    void reconcileMetadataWithRepositoryChecksumAlgorithms(DeployMojo mojo) throws Exception {
+        Project project = (Project) getVariableValueFromObject(mojo, "project");
+        artifactManager.setPath(
+                project.getMainArtifact().get(),
+                Paths.get(getBasedir(), "target/test-classes/unit/maven-deploy-test-1.0-SNAPSHOT.jar"));
+        when(session.getEffectiveProperties())
+                .thenReturn(Map.of(
+                        "aether.checksums.algorithms", "SHA-1,MD5", "aether.checksums.algorithms.internal", "SHA-256"));
+
+        String metadataPath = "org/apache/maven/test/maven-deploy-test/maven-metadata.xml";
+        Map<String, String> repository = new ConcurrentHashMap<>();
+        repository.put(metadataPath, metadata("0.9"));
+        Transport transport = mock(Transport.class);
+        when(transport.getString(any(URI.class)))
+                .thenAnswer(iom -> Optional.ofNullable(repository.get(iom.getArgument(0, URI.class).toString())));
+        doAnswer(iom -> repository.put(
+                        iom.getArgument(1, URI.class).toString(),
+                        new String(iom.getArgument(0, byte[].class), StandardCharsets.UTF_8)))
+                .when(transport)
+                .putBytes(any(byte[].class), any(URI.class));
+        doAnswer(iom -> repository.put(iom.getArgument(1, URI.class).toString(), iom.getArgument(0, String.class)))
+                .when(transport)
+                .putString(anyString(), any(URI.class));
+        TransportProvider transportProvider = mock(TransportProvider.class);
+        when(transportProvider.transport(any(), any())).thenReturn(transport);
+        when(session.getService(TransportProvider.class)).thenReturn(transportProvider);
+
+        mojo.execute();
+
+        String metadata = repository.get(metadataPath);
+        assertTrue(metadata.contains("<version>1.0-SNAPSHOT</version>"), metadata);
+        assertEquals(
+                Checksums.calculate(metadata.getBytes(StandardCharsets.UTF_8), "SHA-256"),
+                repository.get(metadataPath + ".sha256"));
+        assertEquals(Set.of(metadataPath, metadataPath + ".sha256"), repository.keySet());
+    }
+
+    private static String metadata(String... versions) {
+        return "<metadata><groupId>org.apache.maven.test</groupId><artifactId>maven-deploy-test</artifactId>"
+                + "<versioning><versions>"
+                + Arrays.stream(versions).map(v -> "<version>" + v + "</version>").collect(Collectors.joining())
+                + "</versions></versioning></metadata>";
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy")
+    @MojoParameter(name = "checkpoints", value = "true")
+    void deployCompletedSubtree(DeployMojo mojo) throws Exception {
+        Project project = (Project) getVariableValueFromObject(mojo, "project");
+        artifactManager.setPath(
+                project.getMainArtifact().get(),
+                Paths.get(getBasedir(), "target/test-classes/unit/maven-deploy-test-1.0-SNAPSHOT.jar"));
+
+        PluginStub plugin = new PluginStub();
+        plugin.setModel(org.apache.maven.api.model.Plugin.newBuilder()
+                .groupId("org.apache.maven.plugins")
+                .artifactId("maven-deploy-plugin")
+                .build());
+        ((MojoExecutionStub) getVariableValueFromObject(mojo, "mojoExecution")).setPlugin(plugin);
+
+        ProjectStub aggregator = new ProjectStub();
+        aggregator.setBasedir(project.getBasedir().getParent());
+        aggregator.setGroupId("org.apache.maven.test");
+        aggregator.setArtifactId("aggregator");
+        aggregator.setModel(aggregator.getModel()
+                .withSubprojects(List.of(project.getBasedir().getFileName().toString())));
+
+        ProjectStub other = new ProjectStub();
+        other.setBasedir(Paths.get(getBasedir(), "other"));
+        other.setModel(other.getModel()
+                .withBuild(org.apache.maven.api.model.Build.newBuilder()
+                        .plugins(List.of(org.apache.maven.api.model.Plugin.newBuilder()
+                                .groupId("org.apache.maven.plugins")
+                                .artifactId("maven-deploy-plugin")
+                                .executions(List.of(org.apache.maven.api.model.PluginExecution.newBuilder()
+                                        .goals(List.of("deploy"))
+                                        .build()))
+                                .build()))
+                        .build()));
+
+        when(session.getProjects()).thenReturn(List.of(aggregator, project, other));
+        when(session.getPluginContext(aggregator)).thenReturn(new HashMap<>());
+        when(session.getPluginContext(project)).thenReturn(new HashMap<>());
+        when(session.getPluginContext(other)).thenReturn(new HashMap<>());
+
+        ArtifactDeployerRequest request = execute(mojo);
+
+        assertNotNull(request);
+        assertEquals(
+                Arrays.asList(
+                        "org.apache.maven.test:maven-deploy-test:pom:1.0-SNAPSHOT",
+                        "org.apache.maven.test:maven-deploy-test:jar:1.0-SNAPSHOT"),
+                request.getArtifacts().stream().map(Artifact::key).collect(Collectors.toList()));
+    }
+
     private ArtifactDeployerRequest execute(DeployMojo mojo) {
         ArgumentCaptor<ArtifactDeployerRequest> requestCaptor = ArgumentCaptor.forClass(ArtifactDeployerRequest.class);
         doNothing().when(artifactDeployer).deploy(requestCaptor.capture());
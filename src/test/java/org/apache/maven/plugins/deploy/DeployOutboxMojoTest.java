@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.deploy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.maven.api.Artifact;
+import org.apache.maven.api.Session;
+import org.apache.maven.api.di.Inject;
+import org.apache.maven.api.di.Priority;
+import org.apache.maven.api.di.Provides;
+import org.apache.maven.api.di.Singleton;
+import org.apache.maven.api.plugin.testing.InjectMojo;
+import org.apache.maven.api.plugin.testing.MojoParameter;
+import org.apache.maven.api.plugin.testing.MojoTest;
+import org.apache.maven.api.plugin.testing.stubs.SessionMock;
+import org.apache.maven.api.services.ArtifactDeployer;
+import org.apache.maven.api.services.ArtifactDeployerRequest;
+import org.apache.maven.api.services.ArtifactManager;
+import org.apache.maven.impl.InternalSession;
+import org.junit.jupiter.api.Test;
+
+import static org.apache.maven.api.plugin.testing.MojoExtension.getBasedir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@MojoTest
+class DeployOutboxMojoTest {
+    private static final String LOCAL_REPO = "target/local-repo";
+
+    private static final String OUTBOX = "target/deploy-outbox-test";
+
+    @Inject
+    @SuppressWarnings("unused")
+    private ArtifactDeployer artifactDeployer;
+
+    @Inject
+    private Session session;
+
+    @Test
+    @InjectMojo(goal = "deploy-outbox")
+    @MojoParameter(name = "outbox", value = "${session.topDirectory}/" + OUTBOX)
+    void flushOutbox(DeployOutboxMojo mojo) throws Exception {
+        cleanOutbox();
+        queue("20240101-000000-000-1", "module-a", "parent");
+        queue("20240101-000000-000-2", "module-a");
+
+        List<String> deployed = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(iom -> {
+                    ArtifactDeployerRequest request = iom.getArgument(0, ArtifactDeployerRequest.class);
+                    for (Artifact artifact : request.getArtifacts()) {
+                        Path path = session.getService(ArtifactManager.class)
+                                .getPath(artifact)
+                                .get();
+                        deployed.add(artifact.key() + "=" + Files.readString(path));
+                    }
+                    return null;
+                })
+                .when(artifactDeployer)
+                .deploy(any(ArtifactDeployerRequest.class));
+
+        mojo.execute();
+
+        assertEquals(
+                List.of(
+                        "org.apache.maven.test:module-a:pom:1.0=module-a 20240101-000000-000-2",
+                        "org.apache.maven.test:parent:pom:1.0=parent 20240101-000000-000-1"),
+                deployed.stream().sorted().collect(Collectors.toList()));
+        try (Stream<Path> stream = Files.list(Paths.get(getBasedir(), OUTBOX))) {
+            assertFalse(stream.findAny().isPresent());
+        }
+    }
+
+    private static void cleanOutbox() throws IOException {
+        for (Path dir : List.of(Paths.get(getBasedir(), OUTBOX), Paths.get(getBasedir(), OUTBOX + "-work"))) {
+            if (Files.exists(dir)) {
+                try (Stream<Path> stream = Files.walk(dir)) {
+                    for (Path path : stream.sorted(Collections.reverseOrder()).collect(Collectors.toList())) {
+                        Files.delete(path);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues the POMs of the given artifacts the way the deploy goal does for one build.
+     */
+    private static void queue(String entryName, String... artifactIds) throws IOException {
+        Path entryDir = Paths.get(getBasedir(), OUTBOX, entryName);
+        Path workDir = Paths.get(getBasedir(), OUTBOX + "-work", entryName);
+        Files.createDirectories(workDir);
+        List<DeploymentPlan.Entry> entries = new ArrayList<>();
+        for (String artifactId : artifactIds) {
+            Path file = workDir.resolve(artifactId + ".pom");
+            Files.writeString(file, artifactId + " " + entryName);
+            entries.add(new DeploymentPlan.Entry(
+                    "org.apache.maven.test",
+                    artifactId,
+                    "1.0",
+                    "",
+                    "pom",
+                    Files.size(file),
+                    Checksums.calculate(file, DeploymentPlan.CHECKSUM_ALGORITHM),
+                    file));
+        }
+        new DeploymentPlan(List.of(new DeploymentPlan.Target("releases", "file:///tmp/releases", 1, entries)))
+                .stage(entryDir)
+                .write(entryDir.resolve(DeployStagedMojo.PLAN_FILE_NAME));
+    }
+
+    @Provides
+    @Singleton
+    @Priority(10)
+    @SuppressWarnings("unused")
+    private InternalSession createSession() {
+        InternalSession session = SessionMock.getMockSession(LOCAL_REPO);
+        when(session.getTopDirectory()).thenReturn(Paths.get(getBasedir()));
+        return session;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.deploy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.maven.api.Artifact;
+import org.apache.maven.api.di.Inject;
+import org.apache.maven.api.di.Priority;
+import org.apache.maven.api.di.Provides;
+import org.apache.maven.api.di.Singleton;
+import org.apache.maven.api.plugin.MojoException;
+import org.apache.maven.api.plugin.testing.InjectMojo;
+import org.apache.maven.api.plugin.testing.MojoParameter;
+import org.apache.maven.api.plugin.testing.MojoTest;
+import org.apache.maven.api.plugin.testing.stubs.SessionMock;
+import org.apache.maven.api.services.ArtifactDeployer;
+import org.apache.maven.api.services.ArtifactDeployerRequest;
+import org.apache.maven.impl.InternalSession;
+import org.junit.jupiter.api.Test;
+
+import static org.apache.maven.api.plugin.testing.MojoExtension.getBasedir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@MojoTest
+class DeployPlanMojoTest {
+    private static final String LOCAL_REPO = "target/local-repo";
+
+    private static final String PLAN_DIR = "target/deploy-plan-test";
+
+    @Inject
+    @SuppressWarnings("unused")
+    private ArtifactDeployer artifactDeployer;
+
+    @Test
+    @InjectMojo(goal = "deploy-plan")
+    @MojoParameter(name = "plan", value = "${session.topDirectory}/" + PLAN_DIR + "/deploy.plan")
+    void deployPlanWithResume(DeployPlanMojo mojo) throws Exception {
+        Path planFile = createPlan();
+        Path doneFile = planFile.resolveSibling("deploy.plan.done");
+
+        List<String> deployed = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(iom -> {
+                    ArtifactDeployerRequest request = iom.getArgument(0, ArtifactDeployerRequest.class);
+                    if (request.getArtifacts().stream().anyMatch(a -> a.getArtifactId().equals("broken"))) {
+                        throw new MojoException("upload failed");
+                    }
+                    deployed.add(request.getRepository().getId() + "="
+                            + request.getArtifacts().stream().map(Artifact::key).collect(Collectors.joining(",")));
+                    return null;
+                })
+                .when(artifactDeployer)
+                .deploy(any(ArtifactDeployerRequest.class));
+
+        MojoException e = assertThrows(MojoException.class, mojo::execute);
+        assertTrue(e.getMessage().startsWith("1 of 2 units failed to deploy"));
+        assertEquals(
+                List.of("releases=org.apache.maven.test:plan-test:pom:1.0,org.apache.maven.test:plan-test:jar:1.0"),
+                deployed);
+        assertTrue(Files.isRegularFile(doneFile));
+
+        deployed.clear();
+        doAnswer(iom -> {
+                    ArtifactDeployerRequest request = iom.getArgument(0, ArtifactDeployerRequest.class);
+                    deployed.add(request.getRepository().getId() + "="
+                            + request.getArtifacts().stream().map(Artifact::key).collect(Collectors.joining(",")));
+                    return null;
+                })
+                .when(artifactDeployer)
+                .deploy(any(ArtifactDeployerRequest.class));
+
+        mojo.execute();
+        assertEquals(List.of("releases=org.apache.maven.test:broken:pom:1.0"), deployed);
+        assertFalse(Files.exists(doneFile));
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy-plan")
+    @MojoParameter(name = "plan", value = "${session.topDirectory}/" + PLAN_DIR + "/deploy.plan")
+    void deployPlanWithModifiedFile(DeployPlanMojo mojo) throws Exception {
+        Path planFile = createPlan();
+        Files.writeString(planFile.resolveSibling("plan-test-1.0.jar"), "modified");
+
+        MojoException e = assertThrows(MojoException.class, mojo::execute);
+        assertTrue(e.getMessage().contains("has changed since the plan was written"), e.getMessage());
+    }
+
+    private static Path createPlan() throws IOException {
+        Path dir = Paths.get(getBasedir(), PLAN_DIR);
+        Files.createDirectories(dir);
+        Files.deleteIfExists(dir.resolve("deploy.plan.done"));
+        List<DeploymentPlan.Entry> entries = new ArrayList<>();
+        for (String name : List.of("plan-test-1.0.pom", "plan-test-1.0.jar", "broken-1.0.pom")) {
+            Path file = dir.resolve(name);
+            Files.writeString(file, name);
+            String artifactId = name.substring(0, name.indexOf("-1.0"));
+            entries.add(new DeploymentPlan.Entry(
+                    "org.apache.maven.test",
+                    artifactId,
+                    "1.0",
+                    "",
+                    name.substring(name.lastIndexOf('.') + 1),
+                    Files.size(file),
+                    Checksums.calculate(file, DeploymentPlan.CHECKSUM_ALGORITHM),
+                    file));
+        }
+        Path planFile = dir.resolve("deploy.plan");
+        new DeploymentPlan(List.of(new DeploymentPlan.Target("releases", "file:///tmp/releases", 1, entries)))
+                .write(planFile);
+        assertTrue(Files.readString(planFile).contains("\tplan-test-1.0.jar\n"));
+        return planFile;
+    }
+
+    @Provides
+    @Singleton
+    @Priority(10)
+    @SuppressWarnings("unused")
+    private InternalSession createSession() {
+        InternalSession session = SessionMock.getMockSession(LOCAL_REPO);
+        when(session.getTopDirectory()).thenReturn(Paths.get(getBasedir()));
+        return session;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.deploy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.maven.api.Artifact;
+import org.apache.maven.api.di.Inject;
+import org.apache.maven.api.di.Priority;
+import org.apache.maven.api.di.Provides;
+import org.apache.maven.api.di.Singleton;
+import org.apache.maven.api.plugin.MojoException;
+import org.apache.maven.api.plugin.testing.InjectMojo;
+import org.apache.maven.api.plugin.testing.MojoParameter;
+import org.apache.maven.api.plugin.testing.MojoTest;
+import org.apache.maven.api.plugin.testing.stubs.SessionMock;
+import org.apache.maven.api.services.ArtifactDeployer;
+import org.apache.maven.api.services.ArtifactDeployerRequest;
+import org.apache.maven.impl.InternalSession;
+import org.junit.jupiter.api.Test;
+
+import static org.apache.maven.api.plugin.testing.MojoExtension.getBasedir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@MojoTest
+class DeployStagedMojoTest {
+    private static final String LOCAL_REPO = "target/local-repo";
+
+    private static final String STAGING_DIR = "target/deploy-staged-test";
+
+    @Inject
+    @SuppressWarnings("unused")
+    private ArtifactDeployer artifactDeployer;
+
+    @Test
+    @InjectMojo(goal = "deploy-staged")
+    @MojoParameter(name = "stagingDirectories", value = "${session.topDirectory}/" + STAGING_DIR)
+    void deployStaged(DeployStagedMojo mojo) throws Exception {
+        cleanStagingDirectory();
+        stage("shard-1", "module-a", "parent");
+        stage("shard-2", "module-b", "parent");
+
+        List<String> deployed = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(iom -> {
+                    ArtifactDeployerRequest request = iom.getArgument(0, ArtifactDeployerRequest.class);
+                    deployed.add(request.getArtifacts().stream()
+                            .map(Artifact::key)
+                            .collect(Collectors.joining(",")));
+                    return null;
+                })
+                .when(artifactDeployer)
+                .deploy(any(ArtifactDeployerRequest.class));
+
+        mojo.execute();
+
+        assertEquals(
+                List.of(
+                        "org.apache.maven.test:module-a:pom:1.0",
+                        "org.apache.maven.test:module-b:pom:1.0",
+                        "org.apache.maven.test:parent:pom:1.0"),
+                deployed.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    @InjectMojo(goal = "deploy-staged")
+    @MojoParameter(name = "stagingDirectories", value = "${session.topDirectory}/" + STAGING_DIR)
+    void deployStagedWithConflict(DeployStagedMojo mojo) throws Exception {
+        cleanStagingDirectory();
+        stage("shard-1", "module-a");
+        stage("shard-2", "module-a");
+        Files.writeString(Paths.get(getBasedir(), STAGING_DIR + "-work", "shard-2", "module-a.pom"), "modified");
+        stage("shard-2", "module-a");
+
+        MojoException e = assertThrows(MojoException.class, mojo::execute);
+        assertTrue(e.getMessage().startsWith("1 conflicting artifacts found"), e.getMessage());
+    }
+
+    private static void cleanStagingDirectory() throws IOException {
+        for (Path dir : List.of(Paths.get(getBasedir(), STAGING_DIR), Paths.get(getBasedir(), STAGING_DIR + "-work"))) {
+            if (Files.exists(dir)) {
+                try (Stream<Path> stream = Files.walk(dir)) {
+                    for (Path path : stream.sorted(Collections.reverseOrder()).collect(Collectors.toList())) {
+                        Files.delete(path);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Stages the POMs of the given artifacts the way the deploy goal does for one shard.
+     */
+    private static void stage(String shard, String... artifactIds) throws IOException {
+        Path shardDir = Paths.get(getBasedir(), STAGING_DIR, shard);
+        Path workDir = Paths.get(getBasedir(), STAGING_DIR + "-work", shard);
+        Files.createDirectories(workDir);
+        List<DeploymentPlan.Entry> entries = new ArrayList<>();
+        for (String artifactId : artifactIds) {
+            Path file = workDir.resolve(artifactId + ".pom");
+            if (!Files.exists(file)) {
+                Files.writeString(file, artifactId);
+            }
+            entries.add(new DeploymentPlan.Entry(
+                    "org.apache.maven.test",
+                    artifactId,
+                    "1.0",
+                    "",
+                    "pom",
+                    Files.size(file),
+                    Checksums.calculate(file, DeploymentPlan.CHECKSUM_ALGORITHM),
+                    file));
+        }
+        new DeploymentPlan(List.of(new DeploymentPlan.Target("releases", "file:///tmp/releases", 1, entries)))
+                .stage(shardDir)
+                .write(shardDir.resolve(DeployStagedMojo.PLAN_FILE_NAME));
+    }
+
+    @Provides
+    @Singleton
+    @Priority(10)
+    @SuppressWarnings("unused")
+    private InternalSession createSession() {
+        InternalSession session = SessionMock.getMockSession(LOCAL_REPO);
+        when(session.getTopDirectory()).thenReturn(Paths.get(getBasedir()));
+        return session;
+    }
+}
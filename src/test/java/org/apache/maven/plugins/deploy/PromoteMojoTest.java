@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.deploy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.maven.api.Artifact;
+import org.apache.maven.api.di.Inject;
+import org.apache.maven.api.di.Priority;
+import org.apache.maven.api.di.Provides;
+import org.apache.maven.api.di.Singleton;
+import org.apache.maven.api.plugin.MojoException;
+import org.apache.maven.api.plugin.testing.InjectMojo;
+import org.apache.maven.api.plugin.testing.MojoParameter;
+import org.apache.maven.api.plugin.testing.MojoTest;
+import org.apache.maven.api.plugin.testing.stubs.SessionMock;
+import org.apache.maven.api.services.ArtifactDeployer;
+import org.apache.maven.api.services.ArtifactDeployerRequest;
+import org.apache.maven.api.services.ArtifactManager;
+import org.apache.maven.impl.InternalSession;
+import org.junit.jupiter.api.Test;
+
+import static org.apache.maven.api.plugin.testing.MojoExtension.getBasedir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@MojoTest
+class PromoteMojoTest {
+    private static final String LOCAL_REPO = "target/local-repo";
+
+    private static final String SOURCE_REPO = "target/promote-test/staging";
+
+    private static final String ARTIFACT_DIR = "org/apache/maven/test/promote-test/1.0/";
+
+    @Inject
+    @SuppressWarnings("unused")
+    private ArtifactDeployer artifactDeployer;
+
+    @Inject
+    @SuppressWarnings("unused")
+    private ArtifactManager artifactManager;
+
+    @Inject
+    @SuppressWarnings("unused")
+    private InternalSession session;
+
+    @Test
+    @InjectMojo(goal = "promote")
+    @MojoParameter(name = "sourceRepository", value = "staging::file://${session.topDirectory}/" + SOURCE_REPO)
+    @MojoParameter(name = "targetRepository", value = "releases::file://${session.topDirectory}/target/remote-repo")
+    @MojoParameter(
+            name = "artifacts",
+            value = "org.apache.maven.test:promote-test:1.0,org.apache.maven.test:promote-test:jar:sources:1.0")
+    void promote(PromoteMojo mojo) throws Exception {
+        createSourceArtifact("promote-test-1.0.jar", true);
+        createSourceArtifact("promote-test-1.0-sources.jar", false);
+        createSourceArtifact("promote-test-1.0.pom", true);
+
+        doAnswer(iom -> {
+                    ArtifactDeployerRequest request = iom.getArgument(0, ArtifactDeployerRequest.class);
+                    assertEquals("releases", request.getRepository().getId());
+                    List<String> artifacts = request.getArtifacts().stream()
+                            .map(a -> a.getArtifactId() + ":" + a.getClassifier() + ":" + a.getExtension())
+                            .collect(Collectors.toList());
+                    assertEquals(
+                            List.of("promote-test::jar", "promote-test:sources:jar", "promote-test::pom"), artifacts);
+                    for (Artifact artifact : request.getArtifacts()) {
+                        Path path = artifactManager.getPath(artifact).orElseThrow();
+                        assertEquals(
+                                Paths.get(getBasedir(), SOURCE_REPO, ARTIFACT_DIR, path.getFileName().toString()),
+                                path);
+                    }
+                    return null;
+                })
+                .when(artifactDeployer)
+                .deploy(any(ArtifactDeployerRequest.class));
+
+        mojo.execute();
+    }
+
+    @Test
+    @InjectMojo(goal = "promote")
+    @MojoParameter(name = "sourceRepository", value = "staging::file://${session.topDirectory}/" + SOURCE_REPO)
+    @MojoParameter(name = "targetRepository", value = "releases::file://${session.topDirectory}/target/remote-repo")
+    @MojoParameter(name = "artifacts", value = "org.apache.maven.test:promote-test:1.0")
+    void promoteWithChecksumMismatch(PromoteMojo mojo) throws Exception {
+        createSourceArtifact("promote-test-1.0.jar", true);
+        createSourceArtifact("promote-test-1.0.pom", true);
+        Files.writeString(Paths.get(getBasedir(), SOURCE_REPO, ARTIFACT_DIR, "promote-test-1.0.jar"), "tampered");
+
+        MojoException e = assertThrows(MojoException.class, mojo::execute);
+        assertTrue(e.getMessage().startsWith("Checksum mismatch for org.apache.maven.test:promote-test:jar:1.0"));
+    }
+
+    @Test
+    @InjectMojo(goal = "promote")
+    @MojoParameter(name = "sourceRepository", value = "staging::file://${session.topDirectory}/" + SOURCE_REPO)
+    @MojoParameter(name = "targetRepository", value = "releases::file://${session.topDirectory}/target/remote-repo")
+    @MojoParameter(name = "artifacts", value = "org.apache.maven.test:promote-test:1.0")
+    void promoteWithRepositoryChecksumAlgorithm(PromoteMojo mojo) throws Exception {
+        createSourceArtifact("promote-test-1.0.jar", true);
+        createSourceArtifact("promote-test-1.0.pom", true);
+        Path jar = Paths.get(getBasedir(), SOURCE_REPO, ARTIFACT_DIR, "promote-test-1.0.jar");
+        Files.writeString(jar, "tampered");
+        Files.writeString(jar.resolveSibling("promote-test-1.0.jar.sha256"), "0000");
+        when(session.getEffectiveProperties()).thenReturn(Map.of("aether.checksums.algorithms.staging", "SHA-256"));
+
+        MojoException e = assertThrows(MojoException.class, mojo::execute);
+        assertEquals(
+                "Checksum mismatch for org.apache.maven.test:promote-test:jar:1.0: expected 0000 but was "
+                        + Checksums.calculate(jar, "SHA-256"),
+                e.getMessage());
+    }
+
+    @Test
+    @InjectMojo(goal = "promote")
+    @MojoParameter(name = "sourceRepository", value = "staging::file://${session.topDirectory}/" + SOURCE_REPO)
+    @MojoParameter(name = "targetRepository", value = "releases::file://${session.topDirectory}/target/remote-repo")
+    @MojoParameter(name = "artifacts", value = "org.apache.maven.test:promote-test:1.0-SNAPSHOT")
+    void promoteSnapshot(PromoteMojo mojo) throws Exception {
+        when(session.isVersionSnapshot("1.0-SNAPSHOT")).thenReturn(true);
+
+        MojoException e = assertThrows(MojoException.class, mojo::execute);
+        assertEquals(
+                "Snapshot versions cannot be promoted: org.apache.maven.test:promote-test:jar:1.0-SNAPSHOT,"
+                        + " org.apache.maven.test:promote-test:pom:1.0-SNAPSHOT",
+                e.getMessage());
+    }
+
+    private static void createSourceArtifact(String fileName, boolean withChecksum) throws IOException {
+        Path file = Paths.get(getBasedir(), SOURCE_REPO, ARTIFACT_DIR, fileName);
+        Files.createDirectories(file.getParent());
+        Files.write(file, fileName.getBytes(StandardCharsets.UTF_8));
+        Path checksum = file.resolveSibling(fileName + ".sha1");
+        if (withChecksum) {
+            Files.writeString(checksum, Checksums.calculate(file, Checksums.SHA_1) + "  " + fileName);
+        } else {
+            Files.deleteIfExists(checksum);
+        }
+    }
+
+    @Provides
+    @Singleton
+    @Priority(10)
+    @SuppressWarnings("unused")
+    private InternalSession createSession() {
+        InternalSession session = SessionMock.getMockSession(LOCAL_REPO);
+        when(session.getTopDirectory()).thenReturn(Paths.get(getBasedir()));
+        return session;
+    }
+}